@@ -0,0 +1,43 @@
+package org.workflowsim;
+
+/**
+ * Zobrist-style 64-bit fingerprint of an allocation vector.
+ *
+ * Every (task, VM) pair has a pseudo-random key, the SplitMix64 finalizer ({@link QTable#mix})
+ * of task * vmCount + vm, and the hash of an allocation is the XOR of the keys of its pairs.
+ * Moving task i from VM a to VM b therefore changes the hash by {@code key(i, a) ^ key(i, b)},
+ * so the hash of a tracked allocation, and of any single-move neighbour, is maintained in O(1).
+ * Keys are computed on the fly rather than stored, so there is no n * m table. Different
+ * allocations collide with probability about 2^-64.
+ */
+final class AllocationHash {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private AllocationHash() {
+    }
+
+    /**
+     * Key of the pair (task, VM).
+     */
+    static long key(int taskIndex, int vmIndex, int vmCount) {
+        return QTable.mix(((long) taskIndex * vmCount + vmIndex + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Hash of a whole allocation, in O(n).
+     */
+    static long of(int[] allocation, int vmCount) {
+        long hash = 0L;
+        for (int i = 0; i < allocation.length; i++) {
+            hash ^= key(i, allocation[i], vmCount);
+        }
+        return hash;
+    }
+
+    /**
+     * Hash after moving a task from one VM to another.
+     */
+    static long move(long hash, int taskIndex, int fromVm, int toVm, int vmCount) {
+        return hash ^ key(taskIndex, fromVm, vmCount) ^ key(taskIndex, toVm, vmCount);
+    }
+}
@@ -0,0 +1,78 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+
+/**
+ * Default {@link StateEncoder}: discretizes the observation into a small number of buckets so
+ * that states are actually revisited, then hashes the bucket indices into a long.
+ *
+ * - Task length falls into power-of-two buckets.
+ * - VM loads are normalized to [0, 1] between the least and most loaded VM; the load signature
+ *   keeps the imbalance (max - min) / max and a coarse histogram of the normalized loads, which
+ *   stands in for their quantiles without sorting.
+ *
+ * The task-length bucket is mixed into the load signature last. The histogram is a reused
+ * scratch buffer, so encoding allocates nothing.
+ */
+class BucketStateEncoder implements StateEncoder {
+    // Histogram bins over the normalized loads
+    private static final int LOAD_BINS = 4;
+    // Levels each bin's share of VMs is quantized to
+    private static final int SHARE_LEVELS = 4;
+    // Levels the load imbalance is quantized to
+    private static final int IMBALANCE_LEVELS = 8;
+
+    private static final long LOAD_STATE_SEED = 0x5bd1e9955bd1e995L;
+    // Bump whenever the bucketing changes in a way the constants above do not capture
+    private static final int ENCODING_VERSION = 2;
+
+    private final int[] histogram = new int[LOAD_BINS];
+
+    @Override
+    public long loadSignature(VmLoadHeap vmLoads) {
+        int vmCount = vmLoads.size();
+        double min = vmLoads.minLoad();
+        double max = min;
+        for (int vm = 0; vm < vmCount; vm++) {
+            max = Math.max(max, vmLoads.load(vm));
+        }
+
+        long state = LOAD_STATE_SEED;
+        double range = max - min;
+        if (range > 0.0) {
+            int imbalance = (int) (range / max * IMBALANCE_LEVELS);
+            state = QTable.mix(state) ^ Math.min(imbalance, IMBALANCE_LEVELS - 1);
+
+            Arrays.fill(histogram, 0);
+            for (int vm = 0; vm < vmCount; vm++) {
+                int bin = (int) ((vmLoads.load(vm) - min) / range * LOAD_BINS);
+                histogram[Math.min(bin, LOAD_BINS - 1)]++;
+            }
+            for (int bin = 0; bin < LOAD_BINS; bin++) {
+                int share = histogram[bin] * SHARE_LEVELS / (vmCount + 1);
+                state = QTable.mix(state) ^ share;
+            }
+        }
+        return QTable.mix(state);
+    }
+
+    @Override
+    public long encode(double taskLength, long loadSignature) {
+        return QTable.mix(loadSignature ^ log2Bucket(taskLength));
+    }
+
+    @Override
+    public long fingerprint() {
+        long id = QTable.mix(ENCODING_VERSION ^ LOAD_STATE_SEED);
+        id = QTable.mix(id ^ LOAD_BINS);
+        id = QTable.mix(id ^ SHARE_LEVELS);
+        return QTable.mix(id ^ IMBALANCE_LEVELS);
+    }
+
+    /**
+     * Power-of-two bucket of a non-negative value (0 for values below 1).
+     */
+    private static int log2Bucket(double value) {
+        return value < 1.0 ? 0 : 64 - Long.numberOfLeadingZeros((long) value);
+    }
+}
@@ -0,0 +1,118 @@
+package org.workflowsim;
+
+/**
+ * {@link MoveEvaluator} decorator that memoizes candidate makespans in a {@link FitnessCache}.
+ *
+ * It keeps the {@link AllocationHash} of the tracked allocation up to date on every commit, so
+ * the hash of the candidate "move task i to VM v" is known in O(1) before anything is
+ * simulated. TLBO keeps proposing the same candidates: the teacher VM for each task every
+ * iteration, and the same partner VMs while the allocation is stuck. Those repeats are answered
+ * from the cache instead of being simulated again. Meant for expensive fitness functions such as
+ * {@link DagMakespanEvaluator}; the load-based one is already O(log m).
+ *
+ * A candidate evaluated with a cutoff may only yield a lower bound on its makespan. Bounds are
+ * cached negated (makespans are never negative) and answer a later lookup only if they exceed
+ * that lookup's cutoff; otherwise the candidate is evaluated again and the entry replaced. Such
+ * lookups still count as cache hits.
+ */
+class CachingMoveEvaluator implements MoveEvaluator {
+    private final MoveEvaluator delegate;
+    private final FitnessCache cache;
+    private final int vmCount;
+    // Copy of the tracked allocation, so the hash update does not depend on commit order
+    private int[] hashed;
+    private long hash;
+
+    public CachingMoveEvaluator(MoveEvaluator delegate, int vmCount, int cacheEntries) {
+        this.delegate = delegate;
+        this.vmCount = vmCount;
+        this.cache = new FitnessCache(cacheEntries);
+    }
+
+    /**
+     * The given fitness behind a cache of the given size, or the fitness itself if the size is 0.
+     */
+    static MoveEvaluator withCache(MoveEvaluator fitness, int vmCount, int cacheEntries) {
+        return cacheEntries > 0 ? new CachingMoveEvaluator(fitness, vmCount, cacheEntries) : fitness;
+    }
+
+    /**
+     * Cache lookups of the given fitness (0 if it is not cached).
+     */
+    static long lookups(MoveEvaluator fitness) {
+        return fitness instanceof CachingMoveEvaluator ? ((CachingMoveEvaluator) fitness).lookups() : 0L;
+    }
+
+    /**
+     * Cache hits of the given fitness (0 if it is not cached).
+     */
+    static long hits(MoveEvaluator fitness) {
+        return fitness instanceof CachingMoveEvaluator ? ((CachingMoveEvaluator) fitness).hits() : 0L;
+    }
+
+    @Override
+    public void bind(int[] allocation) {
+        delegate.bind(allocation);
+        hashed = allocation.clone();
+        hash = AllocationHash.of(hashed, vmCount);
+        cache.put(hash, delegate.makespan());
+    }
+
+    @Override
+    public int[] allocation() {
+        return delegate.allocation();
+    }
+
+    @Override
+    public double makespan() {
+        return delegate.makespan();
+    }
+
+    @Override
+    public double evaluateMove(int taskIndex, int vmIndex) {
+        return evaluateMove(taskIndex, vmIndex, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public double evaluateMove(int taskIndex, int vmIndex, double cutoff) {
+        int from = hashed[taskIndex];
+        if (from == vmIndex) {
+            return delegate.makespan();
+        }
+        long key = AllocationHash.move(hash, taskIndex, from, vmIndex, vmCount);
+        double cached = cache.get(key);
+        if (cached >= 0.0) {
+            return cached;
+        }
+        if (-cached > cutoff) {
+            return -cached;
+        }
+        double makespan = delegate.evaluateMove(taskIndex, vmIndex, cutoff);
+        cache.put(key, makespan > cutoff ? -makespan : makespan);
+        return makespan;
+    }
+
+    @Override
+    public void commitMove(int taskIndex, int vmIndex) {
+        delegate.commitMove(taskIndex, vmIndex);
+        int from = hashed[taskIndex];
+        if (from != vmIndex) {
+            hash = AllocationHash.move(hash, taskIndex, from, vmIndex, vmCount);
+            hashed[taskIndex] = vmIndex;
+        }
+    }
+
+    /**
+     * Candidate evaluations asked of this evaluator.
+     */
+    public long lookups() {
+        return cache.lookups();
+    }
+
+    /**
+     * Candidate evaluations answered from the cache.
+     */
+    public long hits() {
+        return cache.hits();
+    }
+}
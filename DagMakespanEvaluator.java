@@ -0,0 +1,429 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+
+/**
+ * DAG-aware makespan of an allocation, by list scheduling in a fixed topological order.
+ *
+ * Tasks are placed in {@link WorkflowDag} order; a task starts once its VM is free and every
+ * parent has finished and shipped its data: start = max(VM ready, parent finish + transfer).
+ * The tasks of each VM therefore run in topological order, and each VM's chain is kept as a
+ * sorted array of topological ranks. All state lives in primitive arrays indexed by dense task
+ * index, and the makespan is the maximum of the VMs' last finish times ({@link VmLoadTree}).
+ *
+ * Incremental mode: after a move only the moved task, its DAG descendants and the tasks queued
+ * after it on the two affected VMs can change. Those are pushed onto a dirty-set worklist that
+ * is drained in topological order; a task whose finish time comes out unchanged does not
+ * propagate further, so a move costs time proportional to the region it actually affects.
+ * The start/finish arrays are the live timeline of the tracked allocation.
+ *
+ * Because each VM's tasks form a chain, a delay pushes every later task on that VM, and on
+ * large DAGs the affected region can approach the whole schedule. Two bounds keep a move no
+ * more expensive than a full simulation: a candidate evaluated with a cutoff stops as soon as
+ * any finish time passes it (the makespan is at least that finish time), and once more than
+ * {@link #INCREMENTAL_SHARE} of the tasks have been recomputed the evaluator falls back to plain
+ * list scheduling: a candidate is re-simulated from the moved task's rank in scratch arrays, a
+ * committed move rebuilds the timeline. Candidates are evaluated on the live arrays and rolled
+ * back from an undo log.
+ */
+class DagMakespanEvaluator implements MoveEvaluator {
+    // Share of the tasks an incremental update may recompute before a full simulation is cheaper
+    // (a worklist step costs several times a plain list-scheduling step)
+    static final double INCREMENTAL_SHARE = 0.01;
+
+    private final WorkflowDag dag;
+    private final ExecTimeMatrix exec;
+    private final int taskCount;
+    private final int vmCount;
+    // Own copy of the tracked allocation
+    private int[] allocation;
+    // Simulated start and finish time of each task
+    private final double[] start;
+    private final double[] finish;
+    // Topological ranks of the tasks on each VM, ascending, vmSize[v] entries used
+    private final int[][] vmRanks;
+    private final int[] vmSize;
+    // Finish time of the last task on each VM
+    private final VmLoadTree tails;
+    // Scratch: VM ready times during a full simulation, VM tail finish times
+    private final double[] vmReady;
+    private final double[] tailFinish;
+    // Dirty-set worklist: min-heap of topological ranks, deduplicated by an epoch stamp per task
+    private final int[] worklist;
+    private int worklistSize;
+    private final int[] queuedEpoch;
+    private int epoch;
+    // Tasks an incremental update may recompute before falling back to a full simulation
+    private final int incrementalLimit;
+    // Undo log of a candidate evaluation: recomputed tasks with their previous start and finish
+    private final int[] undoTask;
+    private final double[] undoStart;
+    private final double[] undoFinish;
+    private int undoSize;
+    // Scratch finish times of a candidate simulated from scratch
+    private final double[] candidateFinish;
+    // Outcome of the last propagation
+    private static final int COMPLETED = 0;
+    private static final int OVER_CUTOFF = 1;
+    private static final int OVER_LIMIT = 2;
+    // Finish time that exceeded the cutoff (OVER_CUTOFF)
+    private double exceededFinish;
+
+    public DagMakespanEvaluator(WorkflowDag dag, ExecTimeMatrix exec) {
+        this.dag = dag;
+        this.exec = exec;
+        this.taskCount = dag.taskCount();
+        this.vmCount = exec.vmCount();
+        this.start = new double[taskCount];
+        this.finish = new double[taskCount];
+        this.vmRanks = new int[vmCount][];
+        this.vmSize = new int[vmCount];
+        this.tails = new VmLoadTree(vmCount);
+        this.vmReady = new double[vmCount];
+        this.tailFinish = new double[vmCount];
+        this.worklist = new int[taskCount];
+        this.queuedEpoch = new int[taskCount];
+        this.incrementalLimit = Math.min(taskCount, Math.max(16, (int) (taskCount * INCREMENTAL_SHARE)));
+        this.undoTask = new int[incrementalLimit];
+        this.undoStart = new double[incrementalLimit];
+        this.undoFinish = new double[incrementalLimit];
+        this.candidateFinish = new double[taskCount];
+    }
+
+    /**
+     * Track a copy of the given allocation and simulate it from scratch in O(n + e + m).
+     */
+    @Override
+    public void bind(int[] allocation) {
+        this.allocation = allocation.clone();
+        Arrays.fill(vmSize, 0);
+        for (int i = 0; i < taskCount; i++) {
+            vmSize[allocation[i]]++;
+        }
+        for (int v = 0; v < vmCount; v++) {
+            int capacity = Math.max(8, vmSize[v] + vmSize[v] / 2);
+            if (vmRanks[v] == null || vmRanks[v].length < capacity) {
+                vmRanks[v] = new int[capacity];
+            }
+            vmSize[v] = 0;
+        }
+        // Walking ranks in order keeps every VM chain sorted.
+        for (int r = 0; r < taskCount; r++) {
+            int vm = this.allocation[dag.taskAt(r)];
+            vmRanks[vm][vmSize[vm]++] = r;
+        }
+        simulateAll();
+    }
+
+    @Override
+    public int[] allocation() {
+        return allocation;
+    }
+
+    @Override
+    public double makespan() {
+        return tails.max();
+    }
+
+    /**
+     * Simulated start time of the given task under the tracked allocation.
+     */
+    public double startTime(int taskIndex) {
+        return start[taskIndex];
+    }
+
+    /**
+     * Simulated finish time of the given task under the tracked allocation.
+     */
+    public double finishTime(int taskIndex) {
+        return finish[taskIndex];
+    }
+
+    @Override
+    public double evaluateMove(int taskIndex, int vmIndex) {
+        return evaluateMove(taskIndex, vmIndex, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Applies the move with an undo log, reads the makespan and rolls the move back. Stops early
+     * once a finish time passes the cutoff, and re-simulates the candidate in scratch arrays when
+     * the update grows past the incremental limit.
+     */
+    @Override
+    public double evaluateMove(int taskIndex, int vmIndex, double cutoff) {
+        int from = allocation[taskIndex];
+        if (from == vmIndex) {
+            return makespan();
+        }
+        double fromTail = tails.get(from);
+        double toTail = tails.get(vmIndex);
+        relink(taskIndex, from, vmIndex);
+        int outcome = propagate(taskIndex, from, cutoff, true);
+        double makespan = outcome == COMPLETED
+                ? tails.maxWith(from, tailFinish(from), vmIndex, tailFinish(vmIndex))
+                : exceededFinish;
+        rollback(taskIndex, from, vmIndex);
+        tails.set(from, fromTail);
+        tails.set(vmIndex, toTail);
+        return outcome == OVER_LIMIT ? simulateCandidate(taskIndex, vmIndex, cutoff) : makespan;
+    }
+
+    @Override
+    public void commitMove(int taskIndex, int vmIndex) {
+        int from = allocation[taskIndex];
+        if (from == vmIndex) {
+            return;
+        }
+        relink(taskIndex, from, vmIndex);
+        if (propagate(taskIndex, from, Double.POSITIVE_INFINITY, false) == OVER_LIMIT) {
+            // The update reaches a large part of the schedule: one full pass is cheaper.
+            simulateAll();
+        } else {
+            // Chain ends may have moved even when no finish time did.
+            tails.set(from, tailFinish(from));
+            tails.set(vmIndex, tailFinish(vmIndex));
+        }
+    }
+
+    /**
+     * Move a task's rank from one VM chain to another and update the allocation.
+     */
+    private void relink(int taskIndex, int from, int to) {
+        int r = dag.rank(taskIndex);
+        removeRank(from, r);
+        insertRank(to, r);
+        allocation[taskIndex] = to;
+    }
+
+    /**
+     * Undo a candidate move: restore the logged times and the moved task's chain. Tail entries
+     * of VMs other than the two affected ones are restored from the restored finish times.
+     */
+    private void rollback(int taskIndex, int from, int to) {
+        for (int k = undoSize - 1; k >= 0; k--) {
+            int task = undoTask[k];
+            start[task] = undoStart[k];
+            finish[task] = undoFinish[k];
+        }
+        relink(taskIndex, to, from);
+        for (int k = 0; k < undoSize; k++) {
+            int vm = allocation[undoTask[k]];
+            if (vm != from && vm != to) {
+                tails.set(vm, tailFinish(vm));
+            }
+        }
+        undoSize = 0;
+    }
+
+    /**
+     * Propagate a move through the dirty-set worklist (the task is already relinked). Returns
+     * COMPLETED, OVER_CUTOFF as soon as a finish time passes the cutoff, or OVER_LIMIT once more
+     * than the incremental limit of tasks were recomputed; the last two leave the worklist
+     * abandoned and the timeline partially updated. With {@code logUndo} every recomputed task's
+     * previous times are logged for {@link #rollback}.
+     */
+    private int propagate(int taskIndex, int from, double cutoff, boolean logUndo) {
+        if (++epoch == 0) {
+            // Stamp counter wrapped around: forget all old stamps.
+            Arrays.fill(queuedEpoch, 0);
+            epoch = 1;
+        }
+        // The moved task always changes (new VM, new transfers), and so does whoever now
+        // follows its old VM predecessor on the old VM.
+        int r = dag.rank(taskIndex);
+        push(r);
+        int next = lowerBound(from, r);
+        if (next < vmSize[from]) {
+            push(vmRanks[from][next]);
+        }
+        int recomputed = 0;
+        while (worklistSize > 0) {
+            if (++recomputed > incrementalLimit) {
+                worklistSize = 0;
+                return OVER_LIMIT;
+            }
+            int q = pop();
+            int task = dag.taskAt(q);
+            int vm = allocation[task];
+            int k = lowerBound(vm, q);
+            double ready = k == 0 ? 0.0 : finish[dag.taskAt(vmRanks[vm][k - 1])];
+            for (int e = dag.parentStart(task); e < dag.parentEnd(task); e++) {
+                int parent = dag.parent(e);
+                ready = Math.max(ready, finish[parent] + dag.transferTime(e, allocation[parent], vm));
+            }
+            double newFinish = ready + exec.time(task, vm);
+            if (logUndo) {
+                undoTask[undoSize] = task;
+                undoStart[undoSize] = start[task];
+                undoFinish[undoSize] = finish[task];
+                undoSize++;
+            }
+            if (newFinish == finish[task] && task != taskIndex) {
+                // Same finish time: nothing downstream of this task can change.
+                start[task] = ready;
+                continue;
+            }
+            start[task] = ready;
+            finish[task] = newFinish;
+            if (newFinish > cutoff) {
+                // The makespan is at least this finish time.
+                exceededFinish = newFinish;
+                worklistSize = 0;
+                return OVER_CUTOFF;
+            }
+            for (int c = dag.childStart(task); c < dag.childEnd(task); c++) {
+                push(dag.rank(dag.child(c)));
+            }
+            if (k + 1 < vmSize[vm]) {
+                push(vmRanks[vm][k + 1]);
+            } else {
+                tails.set(vm, newFinish);
+            }
+        }
+        return COMPLETED;
+    }
+
+    /**
+     * Makespan of the tracked allocation with one task moved, by list-scheduling into scratch
+     * arrays (the live timeline is untouched). Tasks ranked before the moved one keep their live
+     * finish times, so the pass starts at its rank. Stops once a finish time passes the cutoff.
+     */
+    private double simulateCandidate(int taskIndex, int vmIndex, double cutoff) {
+        int from = allocation[taskIndex];
+        int first = dag.rank(taskIndex);
+        System.arraycopy(finish, 0, candidateFinish, 0, taskCount);
+        double makespan = 0.0;
+        for (int v = 0; v < vmCount; v++) {
+            int k = lowerBound(v, first);
+            vmReady[v] = k == 0 ? 0.0 : finish[dag.taskAt(vmRanks[v][k - 1])];
+            makespan = Math.max(makespan, vmReady[v]);
+        }
+        allocation[taskIndex] = vmIndex;
+        for (int r = first; r < taskCount; r++) {
+            int task = dag.taskAt(r);
+            int vm = allocation[task];
+            double ready = vmReady[vm];
+            for (int e = dag.parentStart(task); e < dag.parentEnd(task); e++) {
+                int parent = dag.parent(e);
+                ready = Math.max(ready, candidateFinish[parent] + dag.transferTime(e, allocation[parent], vm));
+            }
+            double taskFinish = ready + exec.time(task, vm);
+            candidateFinish[task] = taskFinish;
+            vmReady[vm] = taskFinish;
+            makespan = Math.max(makespan, taskFinish);
+            if (taskFinish > cutoff) {
+                break;
+            }
+        }
+        allocation[taskIndex] = from;
+        return makespan;
+    }
+
+    /**
+     * List-schedule every task from scratch, in topological order.
+     */
+    private void simulateAll() {
+        Arrays.fill(vmReady, 0.0);
+        for (int r = 0; r < taskCount; r++) {
+            int task = dag.taskAt(r);
+            int vm = allocation[task];
+            double ready = vmReady[vm];
+            for (int e = dag.parentStart(task); e < dag.parentEnd(task); e++) {
+                int parent = dag.parent(e);
+                ready = Math.max(ready, finish[parent] + dag.transferTime(e, allocation[parent], vm));
+            }
+            start[task] = ready;
+            finish[task] = ready + exec.time(task, vm);
+            vmReady[vm] = finish[task];
+        }
+        for (int v = 0; v < vmCount; v++) {
+            tailFinish[v] = tailFinish(v);
+        }
+        tails.reset(tailFinish);
+    }
+
+    /**
+     * Finish time of the last task on the given VM (0 for an idle VM).
+     */
+    private double tailFinish(int vm) {
+        return vmSize[vm] == 0 ? 0.0 : finish[dag.taskAt(vmRanks[vm][vmSize[vm] - 1])];
+    }
+
+    /**
+     * Queue a rank on the worklist unless it is already queued in this propagation.
+     */
+    private void push(int r) {
+        int task = dag.taskAt(r);
+        if (queuedEpoch[task] == epoch) {
+            return;
+        }
+        queuedEpoch[task] = epoch;
+        int k = worklistSize++;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (worklist[parent] <= r) {
+                break;
+            }
+            worklist[k] = worklist[parent];
+            k = parent;
+        }
+        worklist[k] = r;
+    }
+
+    /**
+     * Remove and return the lowest queued rank.
+     */
+    private int pop() {
+        int top = worklist[0];
+        int last = worklist[--worklistSize];
+        int k = 0;
+        int half = worklistSize >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            if (child + 1 < worklistSize && worklist[child + 1] < worklist[child]) {
+                child++;
+            }
+            if (last <= worklist[child]) {
+                break;
+            }
+            worklist[k] = worklist[child];
+            k = child;
+        }
+        worklist[k] = last;
+        return top;
+    }
+
+    /**
+     * Position of the first rank >= r in the chain of the given VM.
+     */
+    private int lowerBound(int vm, int r) {
+        int[] ranks = vmRanks[vm];
+        int lo = 0;
+        int hi = vmSize[vm];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranks[mid] < r) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void removeRank(int vm, int r) {
+        int k = lowerBound(vm, r);
+        System.arraycopy(vmRanks[vm], k + 1, vmRanks[vm], k, vmSize[vm] - k - 1);
+        vmSize[vm]--;
+    }
+
+    private void insertRank(int vm, int r) {
+        if (vmSize[vm] == vmRanks[vm].length) {
+            vmRanks[vm] = Arrays.copyOf(vmRanks[vm], 2 * vmRanks[vm].length);
+        }
+        int k = lowerBound(vm, r);
+        System.arraycopy(vmRanks[vm], k, vmRanks[vm], k + 1, vmSize[vm] - k);
+        vmRanks[vm][k] = r;
+        vmSize[vm]++;
+    }
+}
@@ -0,0 +1,95 @@
+package org.workflowsim;
+
+import java.util.List;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Execution time of every task on every VM (task length / VM MIPS), computed once per run.
+ *
+ * VMs are deduplicated by MIPS: VMs with the same MIPS form one class and share one column,
+ * so the matrix holds n * k doubles for k distinct MIPS values instead of n * m. Rows are
+ * task-major (times[task * k + class]) so a pass over an allocation reads memory in order.
+ */
+class ExecTimeMatrix {
+    private final int taskCount;
+    private final int vmCount;
+    private final int classCount;
+    // VM index -> MIPS class
+    private final int[] vmClass;
+    // MIPS of each class
+    private final double[] classMips;
+    private final double[] times;
+
+    public ExecTimeMatrix(TaskIndex taskIndex, List<Vm> vmList) {
+        this(taskIndex, new VmPool(vmList));
+    }
+
+    /**
+     * Matrix over a prebuilt VM pool, so the VM classes are computed once for many workflows.
+     */
+    public ExecTimeMatrix(TaskIndex taskIndex, VmPool vmPool) {
+        this.taskCount = taskIndex.size();
+        this.vmCount = vmPool.vmCount();
+        this.classCount = vmPool.classCount();
+        this.vmClass = new int[vmCount];
+        for (int v = 0; v < vmCount; v++) {
+            vmClass[v] = vmPool.vmClass(v);
+        }
+        this.classMips = new double[classCount];
+        for (int c = 0; c < classCount; c++) {
+            classMips[c] = vmPool.classMips(c);
+        }
+
+        this.times = new double[taskCount * classCount];
+        for (int i = 0; i < taskCount; i++) {
+            double length = taskIndex.task(i).getCloudletLength();
+            for (int c = 0; c < classCount; c++) {
+                times[i * classCount + c] = length / classMips[c];
+            }
+        }
+    }
+
+    public int taskCount() {
+        return taskCount;
+    }
+
+    public int vmCount() {
+        return vmCount;
+    }
+
+    /**
+     * Number of distinct MIPS classes.
+     */
+    public int classCount() {
+        return classCount;
+    }
+
+    /**
+     * MIPS class of the given VM.
+     */
+    public int vmClass(int vmIndex) {
+        return vmClass[vmIndex];
+    }
+
+    /**
+     * MIPS of the given VM.
+     */
+    public double mips(int vmIndex) {
+        return classMips[vmClass[vmIndex]];
+    }
+
+    /**
+     * Execution time of the task at the given index on the given VM.
+     */
+    public double time(int taskIndex, int vmIndex) {
+        return times[taskIndex * classCount + vmClass[vmIndex]];
+    }
+
+    /**
+     * The backing task-major array, times[task * classCount() + class], for kernels that stream
+     * over it ({@link MakespanKernel}). Shared with the matrix: must not be modified.
+     */
+    double[] rawTimes() {
+        return times;
+    }
+}
@@ -0,0 +1,137 @@
+package org.workflowsim;
+
+/**
+ * Bounded map from 64-bit allocation hashes ({@link AllocationHash}) to makespans, with CLOCK
+ * eviction, on primitive arrays.
+ *
+ * Entries live in an open-addressing table (linear probing) at most half full. Every entry has a
+ * reference bit that a hit sets. When the cache is full, the clock hand sweeps the table,
+ * clearing set bits, and evicts the first entry whose bit is already clear. The evicted slot is
+ * closed by shifting the rest of its probe run back, so lookups never need tombstones. Lookups,
+ * inserts and evictions are amortized O(1) and do not allocate. Not thread-safe.
+ */
+final class FitnessCache {
+    // Slot states
+    private static final byte EMPTY = 0;
+    private static final byte UNREFERENCED = 1;
+    private static final byte REFERENCED = 2;
+
+    private final long[] keys;
+    private final double[] values;
+    private final byte[] state;
+    private final int mask;
+    private final int capacity;
+    private int size;
+    // CLOCK hand: next slot the eviction sweep looks at
+    private int hand;
+    private long lookups;
+    private long hits;
+
+    /**
+     * @param capacity maximum number of entries (at least 1)
+     */
+    FitnessCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Fitness cache capacity must be in [1, 2^29], got " + capacity);
+        }
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.keys = new long[tableSize];
+        this.values = new double[tableSize];
+        this.state = new byte[tableSize];
+        this.mask = tableSize - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Cached makespan for the given hash, or NaN if absent.
+     */
+    double get(long key) {
+        lookups++;
+        for (int slot = slot(key); state[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                hits++;
+                state[slot] = REFERENCED;
+                return values[slot];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Cache a makespan, evicting one entry if the cache is full.
+     */
+    void put(long key, double value) {
+        int slot = slot(key);
+        for (; state[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+        if (size == capacity) {
+            evict();
+            // The eviction may have shifted entries into the probe run; find the free slot again.
+            slot = slot(key);
+            while (state[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        state[slot] = UNREFERENCED;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long lookups() {
+        return lookups;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    private void evict() {
+        while (true) {
+            byte s = state[hand];
+            if (s == REFERENCED) {
+                state[hand] = UNREFERENCED;
+            } else if (s == UNREFERENCED) {
+                remove(hand);
+                // A shifted entry may now sit under the hand; it is looked at on the next sweep.
+                return;
+            }
+            hand = (hand + 1) & mask;
+        }
+    }
+
+    /**
+     * Empty a slot and shift later entries of its probe run back (no tombstones).
+     */
+    private void remove(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (state[slot] == EMPTY) {
+                break;
+            }
+            int home = slot(keys[slot]);
+            // Move the entry into the hole unless its home lies cyclically in (hole, slot].
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                state[hole] = state[slot];
+                hole = slot;
+            }
+        }
+        state[hole] = EMPTY;
+        size--;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
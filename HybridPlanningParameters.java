@@ -0,0 +1,260 @@
+package org.workflowsim;
+
+import java.nio.file.Path;
+
+/**
+ * Run-time settings of the hybrid RL-TLBO planner, set by the simulation setup before the
+ * planner runs (the same static-holder style as WorkflowSim's {@code Parameters}).
+ */
+public final class HybridPlanningParameters {
+    // Q-table snapshot read at the start and written at the end of every run (null = no persistence)
+    private static Path qTablePath;
+
+    // Wall-clock budget of a whole run() in milliseconds: TLBO stops refining when it runs out (0 = none)
+    private static long planningDeadlineMillis = 0;
+
+    // Seed of every random stream of a run (see RandomStreams)
+    private static long randomSeed = 0x9E3779B97F4A7C15L;
+
+    // Entries of the per-evaluator cache of DAG-aware candidate makespans (0 = no cache)
+    private static int fitnessCacheEntries = 1 << 16;
+
+    // Stage 1 release mode: WAVE hands out tasks level by level, STREAMING releases children per task
+    private static TaskReadyQueue.ReleaseMode releaseMode = TaskReadyQueue.ReleaseMode.WAVE;
+
+    // Ready waves with at least this many tasks are assigned in parallel in Stage 1 (0 = never)
+    private static int parallelWaveTasks = 0;
+
+    // Whether runs record PlanningMetrics (off = no recording cost)
+    private static boolean metricsEnabled = false;
+
+    // Whether TLBO minimizes the DAG-aware makespan of dependent workflows instead of the maximum VM load
+    private static boolean dagAwareFitness = false;
+
+    // Number of TLBO learners; 1 refines the Stage 1 allocation alone, more runs population TLBO
+    private static int tlboPopulation = 1;
+
+    // TLBO stopping policy (see TLBOStoppingPolicy); for the optional limits below 0 means none.
+    // Hard cap on TLBO iterations
+    private static int maxTlboIterations = 100;
+    // Iterations over which progress is measured for stagnation / convergence
+    private static int convergenceWindow = 10;
+    // Minimum relative makespan improvement over the window to keep going
+    private static double minRelativeImprovement = 0.0;
+    // Wall-clock limit of the TLBO stage in milliseconds
+    private static long tlboTimeLimitMillis = 0;
+    // Limit on fitness evaluations (candidate moves) in the TLBO stage
+    private static long maxTlboEvaluations = 0;
+
+    private HybridPlanningParameters() {
+    }
+
+    /**
+     * Q-table snapshot file, or null if Q-tables are not persisted.
+     */
+    public static Path getQTablePath() {
+        return qTablePath;
+    }
+
+    /**
+     * Persist the RL agent's Q-table in the given file across runs (null disables persistence).
+     * The file is created by the first run; later runs with the same state encoder and VM count
+     * start from it.
+     */
+    public static void setQTablePath(Path path) {
+        qTablePath = path;
+    }
+
+    public static long getPlanningDeadlineMillis() {
+        return planningDeadlineMillis;
+    }
+
+    /**
+     * Anytime planning: return the best plan found within this many milliseconds of the start of
+     * {@code run()} (default 0 = no deadline). Stage 1 always completes, so a feasible plan exists
+     * however short the deadline; TLBO then refines it until the deadline and is interrupted
+     * within a fraction of an iteration once it passes.
+     */
+    public static void setPlanningDeadlineMillis(long millis) {
+        planningDeadlineMillis = requireNonNegative(millis, "planningDeadlineMillis");
+    }
+
+    public static long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * Seed of the RL exploration and TLBO random streams. Runs with the same seed, inputs and
+     * parameters produce the same plan, whatever the number of worker threads (unless a deadline
+     * or cancellation cuts them short). Use a varying value such as {@code System.nanoTime()}
+     * for independent runs.
+     */
+    public static void setRandomSeed(long seed) {
+        randomSeed = seed;
+    }
+
+    public static int getFitnessCacheEntries() {
+        return fitnessCacheEntries;
+    }
+
+    /**
+     * Size of the cache of DAG-aware candidate makespans that each TLBO optimizer (or learner)
+     * keeps, keyed by allocation hash (default 65536 entries, about 1.1 MB; 0 disables it).
+     * Repeated candidates are then answered without resimulating their downstream cone.
+     */
+    public static void setFitnessCacheEntries(int entries) {
+        fitnessCacheEntries = requireNonNegative(entries, "fitnessCacheEntries");
+    }
+
+    public static TaskReadyQueue.ReleaseMode getReleaseMode() {
+        return releaseMode;
+    }
+
+    /**
+     * How Stage 1 releases ready tasks (default WAVE). WAVE hands out the workflow level by level,
+     * the original order; STREAMING releases a task's children as soon as its last parent is
+     * scheduled, so tasks are scored in a different order and plans differ. Parallel waves (see
+     * {@link #setParallelWaveTasks(int)}) only apply to WAVE.
+     */
+    public static void setReleaseMode(TaskReadyQueue.ReleaseMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("releaseMode must not be null");
+        }
+        releaseMode = mode;
+    }
+
+    public static int getParallelWaveTasks() {
+        return parallelWaveTasks;
+    }
+
+    /**
+     * Parallel Stage 1: waves of at least this many mutually independent ready tasks (a wide DAG
+     * level) are scored concurrently against the VM loads at the start of the wave, then
+     * committed in task order and learned from in one batch of Q-updates (default 0 = always
+     * task by task). Decisions within such a wave see the wave's starting loads rather than each
+     * other, so plans differ from the sequential mode; a few hundred to a few thousand tasks is a
+     * sensible threshold. Only applies to the WAVE release mode.
+     */
+    public static void setParallelWaveTasks(int tasks) {
+        parallelWaveTasks = requireNonNegative(tasks, "parallelWaveTasks");
+    }
+
+    public static boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Record {@link PlanningMetrics} for every run (default off). Read them with
+     * {@code ALG_3PlanningAlgorithm.getMetrics()}.
+     */
+    public static void setMetricsEnabled(boolean enabled) {
+        metricsEnabled = enabled;
+    }
+
+    public static boolean isDagAwareFitness() {
+        return dagAwareFitness;
+    }
+
+    /**
+     * Let TLBO minimize the DAG-aware makespan (precedence and data transfers, see
+     * {@code DagMakespanEvaluator}) of workflows with dependencies instead of the maximum VM load
+     * (default off). Plans respect the critical path better, but every candidate move costs a
+     * partial re-simulation of the schedule instead of O(log m), so TLBO is one to three orders
+     * of magnitude slower on large workflows; bound it with a deadline or evaluation budget.
+     */
+    public static void setDagAwareFitness(boolean enabled) {
+        dagAwareFitness = enabled;
+    }
+
+    public static int getTlboPopulation() {
+        return tlboPopulation;
+    }
+
+    /**
+     * Number of TLBO learners (default 1 = refine the Stage 1 allocation alone). Larger values run
+     * population TLBO on a pool of one worker per processor: the first learner starts from the
+     * Stage 1 allocation, the others from perturbed copies of it, and every learner goes through
+     * both phases each iteration, which multiplies the work per iteration by the population size.
+     */
+    public static void setTlboPopulation(int learners) {
+        if (learners < 1) {
+            throw new IllegalArgumentException("tlboPopulation must be >= 1, got " + learners);
+        }
+        tlboPopulation = learners;
+    }
+
+    public static int getMaxTlboIterations() {
+        return maxTlboIterations;
+    }
+
+    /**
+     * Hard cap on TLBO iterations (default 100; 0 skips TLBO). Runs normally stop earlier on
+     * the convergence window.
+     */
+    public static void setMaxTlboIterations(int iterations) {
+        maxTlboIterations = requireNonNegative(iterations, "maxTlboIterations");
+    }
+
+    public static int getConvergenceWindow() {
+        return convergenceWindow;
+    }
+
+    /**
+     * Stop TLBO once the best makespan has not improved over this many iterations (default 10,
+     * 0 disables stagnation and convergence checks).
+     */
+    public static void setConvergenceWindow(int iterations) {
+        convergenceWindow = requireNonNegative(iterations, "convergenceWindow");
+    }
+
+    public static double getMinRelativeImprovement() {
+        return minRelativeImprovement;
+    }
+
+    /**
+     * Also stop TLBO once the best makespan improved by less than this fraction over the
+     * convergence window (default 0: only a complete stall stops it).
+     */
+    public static void setMinRelativeImprovement(double fraction) {
+        if (!(fraction >= 0.0)) {
+            throw new IllegalArgumentException("minRelativeImprovement must be >= 0, got " + fraction);
+        }
+        minRelativeImprovement = fraction;
+    }
+
+    public static long getTlboTimeLimitMillis() {
+        return tlboTimeLimitMillis;
+    }
+
+    /**
+     * Wall-clock limit of the TLBO stage in milliseconds (default 0 = none).
+     */
+    public static void setTlboTimeLimitMillis(long millis) {
+        tlboTimeLimitMillis = requireNonNegative(millis, "tlboTimeLimitMillis");
+    }
+
+    public static long getMaxTlboEvaluations() {
+        return maxTlboEvaluations;
+    }
+
+    /**
+     * Limit on TLBO fitness evaluations, i.e. candidate moves tried (default 0 = none).
+     */
+    public static void setMaxTlboEvaluations(long evaluations) {
+        maxTlboEvaluations = requireNonNegative(evaluations, "maxTlboEvaluations");
+    }
+
+    private static int requireNonNegative(int value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must be >= 0, got " + value);
+        }
+        return value;
+    }
+
+    private static long requireNonNegative(long value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must be >= 0, got " + value);
+        }
+        return value;
+    }
+}
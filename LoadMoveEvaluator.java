@@ -0,0 +1,98 @@
+package org.workflowsim;
+
+/**
+ * An allocation together with the per-VM loads it produces, kept in sync in a {@link VmLoadTree}.
+ *
+ * The makespan is the maximum VM load, ignoring precedence; evaluating "move task i to VM v"
+ * and committing that move both cost O(log m). Shared by the single-vector {@code TLBOOptimizer}
+ * and by the learners of the {@link PopulationTLBOOptimizer}.
+ */
+class LoadMoveEvaluator implements MoveEvaluator {
+    private final ExecTimeMatrix exec;
+    private final VmLoadTree loads;
+    // Rebuilds the loads of a newly bound allocation
+    private final MakespanKernel kernel;
+    // Allocation the loads are tracking (not copied)
+    private int[] allocation;
+
+    public LoadMoveEvaluator(ExecTimeMatrix exec) {
+        this.exec = exec;
+        this.loads = new VmLoadTree(exec.vmCount());
+        this.kernel = new MakespanKernel(exec);
+    }
+
+    /**
+     * Start tracking the given allocation (the array itself, not a copy) and rebuild the loads.
+     */
+    @Override
+    public void bind(int[] allocation) {
+        this.allocation = allocation;
+        double[] vmLoads = new double[exec.vmCount()];
+        kernel.loads(allocation, vmLoads);
+        loads.reset(vmLoads);
+    }
+
+    /**
+     * The tracked allocation.
+     */
+    @Override
+    public int[] allocation() {
+        return allocation;
+    }
+
+    /**
+     * Makespan (maximum VM load) of the tracked allocation.
+     */
+    @Override
+    public double makespan() {
+        return loads.max();
+    }
+
+    /**
+     * Runtime of the task at the given index on the given VM.
+     */
+    public double runtime(int taskIndex, int vmIndex) {
+        return exec.time(taskIndex, vmIndex);
+    }
+
+    /**
+     * Makespan of the tracked allocation if task i were moved to the given VM, in O(log m).
+     * Moving a task to the VM it is already on leaves the makespan unchanged.
+     */
+    @Override
+    public double evaluateMove(int taskIndex, int vmIndex) {
+        int from = allocation[taskIndex];
+        if (from == vmIndex) {
+            return makespan();
+        }
+        return loads.maxWith(from, loads.get(from) - runtime(taskIndex, from),
+                vmIndex, loads.get(vmIndex) + runtime(taskIndex, vmIndex));
+    }
+
+    /**
+     * Change of the sum of squared VM loads if task i were moved to the given VM, in O(1).
+     * Negative means the move spreads the load more evenly; used to break makespan ties.
+     */
+    public double balanceDelta(int taskIndex, int vmIndex) {
+        int from = allocation[taskIndex];
+        if (from == vmIndex) {
+            return 0.0;
+        }
+        double fromLoad = loads.get(from);
+        double toLoad = loads.get(vmIndex);
+        double fromAfter = fromLoad - runtime(taskIndex, from);
+        double toAfter = toLoad + runtime(taskIndex, vmIndex);
+        return fromAfter * fromAfter - fromLoad * fromLoad + toAfter * toAfter - toLoad * toLoad;
+    }
+
+    /**
+     * Commit a move of task i to the given VM, keeping the loads in sync.
+     */
+    @Override
+    public void commitMove(int taskIndex, int vmIndex) {
+        int from = allocation[taskIndex];
+        loads.add(from, -runtime(taskIndex, from));
+        loads.add(vmIndex, runtime(taskIndex, vmIndex));
+        allocation[taskIndex] = vmIndex;
+    }
+}
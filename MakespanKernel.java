@@ -0,0 +1,110 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+
+/**
+ * Load-based makespan of whole allocations: scatter-add every task's runtime into the load of
+ * its VM, then take the maximum load. Used wherever an allocation is evaluated from scratch
+ * (binding a {@link LoadMoveEvaluator}, {@code simulateMakespan}, the final VM loads).
+ *
+ * The kernel reads the matrix's flat task-major rows and VM-class column, with no per-task
+ * method calls. The scatter-add is the hard part to make fast: consecutive tasks on the same VM
+ * form a chain of dependent read-modify-writes. A single allocation is therefore accumulated
+ * into {@link #LANES} interleaved copies of the load vector (task i adds into copy i % LANES)
+ * that are summed at the end, so neighbouring tasks never wait on each other. When all VMs have
+ * the same MIPS the class lookup is skipped entirely.
+ *
+ * Loads are summed in a different order than a plain sequential pass, so they can differ from it
+ * in the last bits. Instances keep scratch buffers: use one kernel per thread (they are cheap,
+ * the matrix is shared).
+ */
+final class MakespanKernel {
+    // Interleaved load accumulators used for a single allocation (accumulate() is unrolled for 4)
+    static final int LANES = 4;
+
+    private final int taskCount;
+    private final int vmCount;
+    private final int classCount;
+    // Task-major execution times, times[task * classCount + class] (shared with the matrix)
+    private final double[] times;
+    // VM index -> MIPS class
+    private final int[] vmClass;
+    // Load accumulators: LANES copies of the load vector
+    private final double[] scratch;
+
+    MakespanKernel(ExecTimeMatrix exec) {
+        this.taskCount = exec.taskCount();
+        this.vmCount = exec.vmCount();
+        this.classCount = exec.classCount();
+        this.times = exec.rawTimes();
+        this.vmClass = new int[vmCount];
+        for (int v = 0; v < vmCount; v++) {
+            vmClass[v] = exec.vmClass(v);
+        }
+        this.scratch = new double[LANES * vmCount];
+    }
+
+    /**
+     * Per-VM loads of the given allocation, written to {@code loads} (length vmCount()).
+     */
+    public void loads(int[] allocation, double[] loads) {
+        accumulate(allocation);
+        for (int v = 0; v < vmCount; v++) {
+            double load = 0.0;
+            for (int lane = 0; lane < LANES; lane++) {
+                load += scratch[lane * vmCount + v];
+            }
+            loads[v] = load;
+        }
+    }
+
+    /**
+     * Makespan (maximum VM load) of the given allocation.
+     */
+    public double makespan(int[] allocation) {
+        accumulate(allocation);
+        double max = 0.0;
+        for (int v = 0; v < vmCount; v++) {
+            double load = 0.0;
+            for (int lane = 0; lane < LANES; lane++) {
+                load += scratch[lane * vmCount + v];
+            }
+            max = Math.max(max, load);
+        }
+        return max;
+    }
+
+    private void accumulate(int[] allocation) {
+        Arrays.fill(scratch, 0, LANES * vmCount, 0.0);
+        double[] acc = scratch;
+        int m = vmCount;
+        int i = 0;
+        if (classCount == 1) {
+            for (; i + LANES <= taskCount; i += LANES) {
+                acc[allocation[i]] += times[i];
+                acc[m + allocation[i + 1]] += times[i + 1];
+                acc[2 * m + allocation[i + 2]] += times[i + 2];
+                acc[3 * m + allocation[i + 3]] += times[i + 3];
+            }
+            for (; i < taskCount; i++) {
+                acc[allocation[i]] += times[i];
+            }
+            return;
+        }
+        int k = classCount;
+        for (; i + LANES <= taskCount; i += LANES) {
+            int v0 = allocation[i];
+            int v1 = allocation[i + 1];
+            int v2 = allocation[i + 2];
+            int v3 = allocation[i + 3];
+            acc[v0] += times[i * k + vmClass[v0]];
+            acc[m + v1] += times[(i + 1) * k + vmClass[v1]];
+            acc[2 * m + v2] += times[(i + 2) * k + vmClass[v2]];
+            acc[3 * m + v3] += times[(i + 3) * k + vmClass[v3]];
+        }
+        for (; i < taskCount; i++) {
+            int v = allocation[i];
+            acc[v] += times[i * k + vmClass[v]];
+        }
+    }
+}
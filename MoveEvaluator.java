@@ -0,0 +1,46 @@
+package org.workflowsim;
+
+/**
+ * Fitness of an allocation that can be re-evaluated incrementally after single-task moves.
+ *
+ * Implementations track one allocation (see {@link #bind(int[])}) and keep whatever state they
+ * need in sync with it, so TLBO can ask for the makespan of a candidate move and commit it
+ * without resimulating the whole workflow.
+ */
+interface MoveEvaluator {
+
+    /**
+     * Start tracking the given allocation and rebuild all derived state.
+     */
+    void bind(int[] allocation);
+
+    /**
+     * The tracked allocation; callers must change it only through {@link #commitMove(int, int)}.
+     */
+    int[] allocation();
+
+    /**
+     * Makespan of the tracked allocation.
+     */
+    double makespan();
+
+    /**
+     * Makespan of the tracked allocation if the given task were moved to the given VM.
+     * The tracked allocation is left unchanged.
+     */
+    double evaluateMove(int taskIndex, int vmIndex);
+
+    /**
+     * Like {@link #evaluateMove(int, int)} for callers that only keep moves whose makespan is at
+     * most {@code cutoff}: the exact makespan when it is {@code <= cutoff}, otherwise any value
+     * {@code > cutoff} (a lower bound), so evaluation may stop as soon as the bound is exceeded.
+     */
+    default double evaluateMove(int taskIndex, int vmIndex, double cutoff) {
+        return evaluateMove(taskIndex, vmIndex);
+    }
+
+    /**
+     * Move the given task to the given VM and update the derived state.
+     */
+    void commitMove(int taskIndex, int vmIndex);
+}
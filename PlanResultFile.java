@@ -0,0 +1,197 @@
+package org.workflowsim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary, memory-mapped file holding the result of one planning run.
+ *
+ * Layout (little-endian, every section starting on an 8-byte boundary):
+ * <pre>
+ *   header      magic "RLTP" (int), version (int), task count n (int), VM count m (int), makespan (double)
+ *   allocation  n ints, VM index of each task (dense task index order), padded to 8 bytes
+ *   start       n doubles
+ *   finish      n doubles
+ *   vm loads    m doubles
+ * </pre>
+ * Each section is mapped on its own, so a plan is not limited by the 2 GB size of a single
+ * mapping. {@link #open(Path)} maps the file read-only and hands out buffer views of the
+ * sections: nothing is parsed or copied, and pages are loaded lazily by the OS.
+ */
+public final class PlanResultFile {
+    static final int MAGIC = 0x50544C52; // bytes "RLTP" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private final int taskCount;
+    private final int vmCount;
+    private final double makespan;
+    private final IntBuffer allocation;
+    private final DoubleBuffer startTimes;
+    private final DoubleBuffer finishTimes;
+    private final DoubleBuffer vmLoads;
+
+    private PlanResultFile(int taskCount, int vmCount, double makespan, IntBuffer allocation,
+            DoubleBuffer startTimes, DoubleBuffer finishTimes, DoubleBuffer vmLoads) {
+        this.taskCount = taskCount;
+        this.vmCount = vmCount;
+        this.makespan = makespan;
+        this.allocation = allocation;
+        this.startTimes = startTimes;
+        this.finishTimes = finishTimes;
+        this.vmLoads = vmLoads;
+    }
+
+    /**
+     * Write a plan to the given file, replacing any existing content.
+     */
+    public static void write(Path path, int[] allocation, TaskTimeline timeline, double[] vmLoads,
+            double makespan) throws IOException {
+        int n = allocation.length;
+        int m = vmLoads.length;
+        if (timeline.size() != n) {
+            throw new IllegalArgumentException("Timeline has " + timeline.size() + " tasks, allocation has " + n);
+        }
+        long allocationOffset = HEADER_BYTES;
+        long startOffset = allocationOffset + align((long) n * Integer.BYTES);
+        long finishOffset = startOffset + (long) n * Double.BYTES;
+        long loadsOffset = finishOffset + (long) n * Double.BYTES;
+        long fileSize = loadsOffset + (long) m * Double.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Size the file up front; the section mappings below then never have to grow it.
+            channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putDouble(makespan);
+
+            map(channel, FileChannel.MapMode.READ_WRITE, allocationOffset, (long) n * Integer.BYTES)
+                    .asIntBuffer().put(allocation);
+            map(channel, FileChannel.MapMode.READ_WRITE, startOffset, (long) n * Double.BYTES)
+                    .asDoubleBuffer().put(timeline.startTimes());
+            map(channel, FileChannel.MapMode.READ_WRITE, finishOffset, (long) n * Double.BYTES)
+                    .asDoubleBuffer().put(timeline.finishTimes());
+            map(channel, FileChannel.MapMode.READ_WRITE, loadsOffset, (long) m * Double.BYTES)
+                    .asDoubleBuffer().put(vmLoads);
+        }
+    }
+
+    /**
+     * Map a plan file written by {@link #write} read-only.
+     *
+     * @throws IOException if the file cannot be read or is not a plan file of a supported version
+     */
+    public static PlanResultFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a plan file (too short): " + path);
+            }
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a plan file (bad magic): " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported plan file version " + version + ": " + path);
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            double makespan = header.getDouble();
+            if (n < 0 || m < 0) {
+                throw new IOException("Corrupt plan file header: " + path);
+            }
+            long allocationOffset = HEADER_BYTES;
+            long startOffset = allocationOffset + align((long) n * Integer.BYTES);
+            long finishOffset = startOffset + (long) n * Double.BYTES;
+            long loadsOffset = finishOffset + (long) n * Double.BYTES;
+            if (fileSize < loadsOffset + (long) m * Double.BYTES) {
+                throw new IOException("Truncated plan file: " + path);
+            }
+            // Mappings stay valid after the channel is closed.
+            return new PlanResultFile(n, m, makespan,
+                    map(channel, FileChannel.MapMode.READ_ONLY, allocationOffset, (long) n * Integer.BYTES)
+                            .asIntBuffer(),
+                    map(channel, FileChannel.MapMode.READ_ONLY, startOffset, (long) n * Double.BYTES)
+                            .asDoubleBuffer(),
+                    map(channel, FileChannel.MapMode.READ_ONLY, finishOffset, (long) n * Double.BYTES)
+                            .asDoubleBuffer(),
+                    map(channel, FileChannel.MapMode.READ_ONLY, loadsOffset, (long) m * Double.BYTES)
+                            .asDoubleBuffer());
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long bytes)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, offset, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    public int taskCount() {
+        return taskCount;
+    }
+
+    public int vmCount() {
+        return vmCount;
+    }
+
+    /**
+     * DAG-aware makespan of the stored plan.
+     */
+    public double makespan() {
+        return makespan;
+    }
+
+    /**
+     * VM index assigned to the task at the given dense index.
+     */
+    public int vmOf(int taskIndex) {
+        return allocation.get(taskIndex);
+    }
+
+    public double startTime(int taskIndex) {
+        return startTimes.get(taskIndex);
+    }
+
+    public double finishTime(int taskIndex) {
+        return finishTimes.get(taskIndex);
+    }
+
+    /**
+     * Total execution time assigned to the given VM.
+     */
+    public double vmLoad(int vmIndex) {
+        return vmLoads.get(vmIndex);
+    }
+
+    /**
+     * Read-only view of the whole allocation section.
+     */
+    public IntBuffer allocation() {
+        return allocation.duplicate();
+    }
+
+    public DoubleBuffer startTimes() {
+        return startTimes.duplicate();
+    }
+
+    public DoubleBuffer finishTimes() {
+        return finishTimes.duplicate();
+    }
+
+    public DoubleBuffer vmLoads() {
+        return vmLoads.duplicate();
+    }
+}
@@ -0,0 +1,84 @@
+package org.workflowsim;
+
+/**
+ * Cross-thread control of one planning run: cooperative cancellation, the run's wall-clock
+ * deadline, and the best allocation found so far.
+ *
+ * The planner polls {@link #stopRequested()} every few dozen tasks inside the TLBO phases,
+ * so a stop takes effect within a fraction of one iteration. The best-so-far plan is published
+ * as an immutable snapshot through a volatile reference, so any thread can read it at any time
+ * without locking.
+ */
+final class PlanningControl {
+    // Tasks between two stop checks inside a TLBO phase (power of two, checked with a mask)
+    static final int CHECK_INTERVAL = 64;
+
+    private final long startNanos;
+    // Deadline relative to startNanos, Long.MAX_VALUE for none
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile Snapshot best;
+
+    /**
+     * Control for a run starting now, with the given deadline in milliseconds (0 = none).
+     */
+    PlanningControl(long deadlineMillis) {
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = deadlineMillis > 0 ? deadlineMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    boolean deadlinePassed() {
+        return System.nanoTime() - startNanos >= deadlineNanos;
+    }
+
+    /**
+     * Whether the run should wind down: cancelled, or past its deadline.
+     */
+    boolean stopRequested() {
+        return cancelled || deadlinePassed();
+    }
+
+    /**
+     * Publish an allocation if it beats the best one so far. The array is copied.
+     */
+    void offer(int[] allocation, double makespan) {
+        Snapshot current = best;
+        if (current == null || makespan < current.makespan) {
+            best = new Snapshot(allocation.clone(), makespan);
+        }
+    }
+
+    /**
+     * Copy of the best allocation so far, or null if none was published yet.
+     */
+    int[] bestAllocation() {
+        Snapshot current = best;
+        return current == null ? null : current.allocation.clone();
+    }
+
+    /**
+     * Makespan of the best allocation so far, NaN if none was published yet.
+     */
+    double bestMakespan() {
+        Snapshot current = best;
+        return current == null ? Double.NaN : current.makespan;
+    }
+
+    private static final class Snapshot {
+        final int[] allocation;
+        final double makespan;
+
+        Snapshot(int[] allocation, double makespan) {
+            this.allocation = allocation;
+            this.makespan = makespan;
+        }
+    }
+}
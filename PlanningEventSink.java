@@ -0,0 +1,45 @@
+package org.workflowsim;
+
+/**
+ * Receiver of the planning events {@link PlanningMetrics} emits for profiling tools.
+ *
+ * The planner targets Java 8, where {@code jdk.jfr} does not exist, so it never refers to JFR
+ * classes directly. The JFR implementation ({@code JfrPlanningEventSink}) lives in the separate
+ * {@code jfr/} source folder and is loaded by name, only when {@code jdk.jfr.Event} is present at
+ * run time; otherwise events go to {@link #NONE}.
+ */
+interface PlanningEventSink {
+    // Sink that drops every event
+    PlanningEventSink NONE = new PlanningEventSink() {
+        @Override
+        public void stage(String stage, int tasks, long durationNanos) {
+        }
+
+        @Override
+        public void tlboIteration(int iteration, double makespan, long evaluations, long durationNanos) {
+        }
+    };
+
+    /**
+     * A planning stage ("rl" or "tlbo") of one workflow finished.
+     */
+    void stage(String stage, int tasks, long durationNanos);
+
+    /**
+     * A TLBO iteration finished with the given best makespan and total evaluations so far.
+     */
+    void tlboIteration(int iteration, double makespan, long evaluations, long durationNanos);
+
+    /**
+     * The JFR sink when both JFR and the {@code jfr/} classes are available, else {@link #NONE}.
+     */
+    static PlanningEventSink load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (PlanningEventSink) Class.forName("org.workflowsim.JfrPlanningEventSink")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return NONE;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package org.workflowsim;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and samples describing where planning time goes, for one run or batch.
+ *
+ * Recording is meant for the hot paths: counters are {@link LongAdder}s (safe to bump from TLBO
+ * worker threads), the TLBO iteration-time histogram is a preallocated array of power-of-two
+ * buckets, and the epsilon and makespan trajectories are fixed-size sample buffers that halve
+ * their resolution when full. Phases add their accept/reject counts once per phase, not per move.
+ * When metrics are off the planner uses {@link #DISABLED}, whose recording methods are empty,
+ * so the JIT removes the calls.
+ *
+ * Export with {@link #toJson()} / {@link #writeJson(Path)}. While metrics are on and a JFR
+ * recording is active, every stage and TLBO iteration is also emitted as a JFR event
+ * (org.workflowsim.PlanningStage, org.workflowsim.TlboIteration) through a
+ * {@link PlanningEventSink}, which keeps this class free of JFR types. In a batch, the makespan
+ * trajectory holds the iterations of all workflows in the order they finished.
+ */
+public class PlanningMetrics {
+    // Recorder that records nothing
+    static final PlanningMetrics DISABLED = new PlanningMetrics() {
+        @Override
+        void rlStageFinished(int tasks, long startNanos) {
+        }
+
+        @Override
+        void tlboStageFinished(int tasks, long startNanos) {
+        }
+
+        @Override
+        void qTableLookup(boolean hit) {
+        }
+
+        @Override
+        void epsilon(double epsilon) {
+        }
+
+        @Override
+        void qTableSize(int states) {
+        }
+
+        @Override
+        void teacherPhase(int accepted, int rejected) {
+        }
+
+        @Override
+        void learnerPhase(int accepted, int rejected) {
+        }
+
+        @Override
+        void tlboIteration(int iteration, double makespan, long evaluations, long startNanos) {
+        }
+
+        @Override
+        void tlboEvaluations(long evaluations) {
+        }
+
+        @Override
+        void fitnessCache(long lookups, long hits) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    private static final int TRAJECTORY_SAMPLES = 1024;
+    // JFR events when available
+    private static final PlanningEventSink EVENTS = PlanningEventSink.load();
+
+    private final LongAdder workflows = new LongAdder();
+    private final LongAdder tasks = new LongAdder();
+    private final LongAdder stage1Nanos = new LongAdder();
+    private final LongAdder stage2Nanos = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder qTableLookups = new LongAdder();
+    private final LongAdder qTableHits = new LongAdder();
+    private volatile int qTableSize;
+    private final LongAdder tlboIterations = new LongAdder();
+    private final LongAdder tlboEvaluations = new LongAdder();
+    private final LongAdder teacherAccepted = new LongAdder();
+    private final LongAdder teacherRejected = new LongAdder();
+    private final LongAdder learnerAccepted = new LongAdder();
+    private final LongAdder learnerRejected = new LongAdder();
+    private final LongAdder fitnessCacheLookups = new LongAdder();
+    private final LongAdder fitnessCacheHits = new LongAdder();
+    // TLBO iteration wall time, bucket b counts durations in [2^b, 2^(b+1)) ns
+    private final AtomicLongArray iterationNanos = new AtomicLongArray(64);
+    private final Trajectory epsilonTrajectory = new Trajectory(TRAJECTORY_SAMPLES);
+    private final Trajectory makespanTrajectory = new Trajectory(TRAJECTORY_SAMPLES);
+
+    /**
+     * Whether this recorder keeps anything.
+     */
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Stage 1 (RL assignment) of one workflow finished.
+     */
+    void rlStageFinished(int taskCount, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        stage1Nanos.add(elapsed);
+        workflows.increment();
+        tasks.add(taskCount);
+        EVENTS.stage("rl", taskCount, elapsed);
+    }
+
+    /**
+     * Stage 2 (TLBO refinement) of one workflow finished.
+     */
+    void tlboStageFinished(int taskCount, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        stage2Nanos.add(elapsed);
+        EVENTS.stage("tlbo", taskCount, elapsed);
+    }
+
+    /**
+     * An exploiting Stage 1 decision looked its state up in the Q-table.
+     */
+    void qTableLookup(boolean hit) {
+        qTableLookups.increment();
+        if (hit) {
+            qTableHits.increment();
+        }
+    }
+
+    /**
+     * Exploration rate after a Stage 1 decision.
+     */
+    void epsilon(double epsilon) {
+        decisions.increment();
+        epsilonTrajectory.add(epsilon);
+    }
+
+    void qTableSize(int states) {
+        qTableSize = states;
+    }
+
+    void teacherPhase(int accepted, int rejected) {
+        teacherAccepted.add(accepted);
+        teacherRejected.add(rejected);
+    }
+
+    void learnerPhase(int accepted, int rejected) {
+        learnerAccepted.add(accepted);
+        learnerRejected.add(rejected);
+    }
+
+    /**
+     * A TLBO iteration finished with the given best makespan and total evaluations so far.
+     */
+    void tlboIteration(int iteration, double makespan, long evaluations, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        tlboIterations.increment();
+        iterationNanos.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1L, elapsed)));
+        makespanTrajectory.add(makespan);
+        EVENTS.tlboIteration(iteration, makespan, evaluations, elapsed);
+    }
+
+    /**
+     * Total fitness evaluations of one workflow's TLBO stage.
+     */
+    void tlboEvaluations(long evaluations) {
+        tlboEvaluations.add(evaluations);
+    }
+
+    /**
+     * Fitness cache lookups and hits of one workflow's TLBO stage.
+     */
+    void fitnessCache(long lookups, long hits) {
+        fitnessCacheLookups.add(lookups);
+        fitnessCacheHits.add(hits);
+    }
+
+    public long getStage1Nanos() {
+        return stage1Nanos.sum();
+    }
+
+    public long getStage2Nanos() {
+        return stage2Nanos.sum();
+    }
+
+    public long getTlboEvaluations() {
+        return tlboEvaluations.sum();
+    }
+
+    /**
+     * TLBO fitness evaluations per second of TLBO wall time (summed over workflows).
+     */
+    public double getEvaluationsPerSecond() {
+        long nanos = stage2Nanos.sum();
+        return nanos == 0 ? 0.0 : tlboEvaluations.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Share of exploiting decisions whose state already had a Q-table row.
+     */
+    public double getQTableHitRate() {
+        long lookups = qTableLookups.sum();
+        return lookups == 0 ? 0.0 : (double) qTableHits.sum() / lookups;
+    }
+
+    /**
+     * Share of TLBO candidate evaluations answered from the fitness cache.
+     */
+    public double getFitnessCacheHitRate() {
+        long lookups = fitnessCacheLookups.sum();
+        return lookups == 0 ? 0.0 : (double) fitnessCacheHits.sum() / lookups;
+    }
+
+    /**
+     * All metrics as one JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append('{');
+        field(json, "workflows", workflows.sum());
+        field(json, "tasks", tasks.sum());
+        field(json, "stage1Nanos", stage1Nanos.sum());
+        field(json, "stage2Nanos", stage2Nanos.sum());
+        field(json, "decisions", decisions.sum());
+        field(json, "qTableLookups", qTableLookups.sum());
+        field(json, "qTableHits", qTableHits.sum());
+        field(json, "qTableHitRate", getQTableHitRate());
+        field(json, "qTableSize", qTableSize);
+        field(json, "tlboIterations", tlboIterations.sum());
+        field(json, "tlboEvaluations", tlboEvaluations.sum());
+        field(json, "evaluationsPerSecond", getEvaluationsPerSecond());
+        field(json, "teacherAccepted", teacherAccepted.sum());
+        field(json, "teacherRejected", teacherRejected.sum());
+        field(json, "learnerAccepted", learnerAccepted.sum());
+        field(json, "learnerRejected", learnerRejected.sum());
+        field(json, "fitnessCacheLookups", fitnessCacheLookups.sum());
+        field(json, "fitnessCacheHits", fitnessCacheHits.sum());
+        field(json, "fitnessCacheHitRate", getFitnessCacheHitRate());
+        // Non-empty buckets only, as [lower bound in ns, count]
+        json.append("\"iterationNanosHistogram\":[");
+        boolean first = true;
+        for (int b = 0; b < iterationNanos.length(); b++) {
+            long count = iterationNanos.get(b);
+            if (count > 0) {
+                json.append(first ? "" : ",").append('[').append(1L << b).append(',').append(count).append(']');
+                first = false;
+            }
+        }
+        json.append("],");
+        json.append("\"epsilonTrajectory\":");
+        epsilonTrajectory.appendJson(json);
+        json.append(",\"makespanTrajectory\":");
+        makespanTrajectory.appendJson(json);
+        return json.append('}').toString();
+    }
+
+    public void writeJson(Path path) throws IOException {
+        Files.write(path, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void field(StringBuilder json, String name, long value) {
+        json.append('"').append(name).append("\":").append(value).append(',');
+    }
+
+    private static void field(StringBuilder json, String name, double value) {
+        json.append('"').append(name).append("\":").append(Double.isFinite(value) ? Double.toString(value) : "null")
+                .append(',');
+    }
+
+    /**
+     * Bounded series of samples: keeps every stride-th value and, when the buffer is full, drops
+     * every other sample and doubles the stride, so it always spans the whole run. Skipped
+     * samples only bump an atomic counter; the lock is taken for the kept ones.
+     */
+    private static final class Trajectory {
+        private final double[] samples;
+        private int size;
+        // Written under the lock only
+        private volatile long stride = 1;
+        private final AtomicLong seen = new AtomicLong();
+
+        Trajectory(int capacity) {
+            this.samples = new double[capacity];
+        }
+
+        void add(double value) {
+            long index = seen.getAndIncrement();
+            if (index % stride != 0) {
+                return;
+            }
+            synchronized (this) {
+                // The stride may have doubled since it was read.
+                if (index % stride != 0) {
+                    return;
+                }
+                if (size == samples.length) {
+                    for (int k = 0; k < size / 2; k++) {
+                        samples[k] = samples[2 * k];
+                    }
+                    size /= 2;
+                    stride *= 2;
+                    if (index % stride != 0) {
+                        return;
+                    }
+                }
+                samples[size++] = value;
+            }
+        }
+
+        synchronized void appendJson(StringBuilder json) {
+            json.append("{\"stride\":").append(stride).append(",\"values\":[");
+            for (int k = 0; k < size; k++) {
+                json.append(k == 0 ? "" : ",").append(samples[k]);
+            }
+            json.append("]}");
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package org.workflowsim;
+
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Population-based TLBO: refines a class of learners (allocation vectors) instead of one vector.
+ *
+ * Every iteration computes the teacher (best learner) and the class mean (the VM most learners
+ * use for each task) from the population, then runs the teacher phase and the learner phase for
+ * all learners in parallel on a ForkJoinPool. Each learner owns its allocation, its fitness
+ * ({@link LoadMoveEvaluator}, or {@link DagMakespanEvaluator} for the DAG-aware makespan) and
+ * its own SplittableRandom stream split from the seed, and the phases only read population data
+ * captured before the phase starts, so results depend on the seed alone and not on thread count
+ * or scheduling (unless a stop check cuts a phase short).
+ *
+ * A move is kept when it lowers the learner's makespan, or keeps it and spreads the VM loads more
+ * evenly, as in the single-vector learner phase. Under the maximum-load fitness most moves that
+ * do not touch the most loaded VM leave the makespan unchanged; accepting all of them would let
+ * each learner random-walk on that plateau.
+ */
+class PopulationTLBOOptimizer {
+    // Share of tasks randomly reassigned when deriving the initial learners from the seed allocation
+    private static final double INITIAL_PERTURBATION = 0.3;
+
+    private final Learner[] learners;
+    // Polled every PlanningControl.CHECK_INTERVAL tasks inside the phases; true ends the phase early
+    private BooleanSupplier stopCheck = () -> false;
+    // Accepted / rejected move counts, added once per learner and phase
+    private PlanningMetrics metrics = PlanningMetrics.DISABLED;
+    private final int taskCount;
+    private final int vmCount;
+    // Class mean: for each task, the VM most learners assign it to
+    private final int[] mean;
+    // Teacher allocation captured before the teacher phase
+    private final int[] teacher;
+    // Allocations captured before the learner phase (learner-major, taskCount entries each)
+    private final int[] snapshot;
+    private final double[] snapshotMakespan;
+    // Scratch buffers for the class mean computation
+    private final int[] voteCount;
+    private final int[] votedVms;
+    private int best;
+
+    /**
+     * @param dag                 precedence model to optimize the DAG-aware makespan, or null for the maximum VM load
+     * @param fitnessCacheEntries size of each learner's cache of DAG-aware candidate makespans (0 = none)
+     */
+    public PopulationTLBOOptimizer(ExecTimeMatrix exec, WorkflowDag dag, int populationSize, long seed,
+            int fitnessCacheEntries) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population TLBO needs at least two learners, got " + populationSize);
+        }
+        this.taskCount = exec.taskCount();
+        this.vmCount = exec.vmCount();
+        this.learners = new Learner[populationSize];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int k = 0; k < populationSize; k++) {
+            LoadMoveEvaluator loads = new LoadMoveEvaluator(exec);
+            MoveEvaluator fitness = dag == null ? loads
+                    : CachingMoveEvaluator.withCache(new DagMakespanEvaluator(dag, exec), vmCount, fitnessCacheEntries);
+            learners[k] = new Learner(loads, fitness, root.split());
+        }
+        this.mean = new int[taskCount];
+        this.teacher = new int[taskCount];
+        this.snapshot = new int[populationSize * taskCount];
+        this.snapshotMakespan = new double[populationSize];
+        this.voteCount = new int[vmCount];
+        this.votedVms = new int[populationSize];
+    }
+
+    /**
+     * Interrupt the phases when the given check returns true. It is polled from worker threads
+     * every {@link PlanningControl#CHECK_INTERVAL} tasks, so it must be cheap and thread-safe.
+     */
+    public void setStopCheck(BooleanSupplier stopCheck) {
+        this.stopCheck = stopCheck;
+    }
+
+    public void setMetrics(PlanningMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Seed the population: the first learner is the given allocation, the others are copies of it
+     * with a share of their tasks moved to random VMs.
+     */
+    public void initialize(int[] allocation) {
+        for (int k = 0; k < learners.length; k++) {
+            Learner learner = learners[k];
+            int[] own = allocation.clone();
+            if (k > 0) {
+                for (int i = 0; i < taskCount; i++) {
+                    if (learner.random.nextDouble() < INITIAL_PERTURBATION) {
+                        own[i] = learner.random.nextInt(vmCount);
+                    }
+                }
+            }
+            learner.bind(own);
+        }
+        updateBest();
+    }
+
+    /**
+     * One TLBO iteration: teacher phase then learner phase over the whole population.
+     */
+    public void iterate(ForkJoinPool pool) {
+        System.arraycopy(learners[best].moves.allocation(), 0, teacher, 0, taskCount);
+        computeMean();
+        runPhase(pool, new PhaseAction(true, 0, learners.length));
+        updateBest();
+
+        for (int k = 0; k < learners.length; k++) {
+            System.arraycopy(learners[k].moves.allocation(), 0, snapshot, k * taskCount, taskCount);
+            snapshotMakespan[k] = learners[k].moves.makespan();
+        }
+        runPhase(pool, new PhaseAction(false, 0, learners.length));
+        updateBest();
+    }
+
+    /**
+     * Run a phase on the pool. A caller that is itself a pool worker (planBatch refines each
+     * workflow on a worker of the same pool) runs it in place and forks the halves to its own
+     * pool, instead of blocking the worker on an external submission.
+     */
+    private static void runPhase(ForkJoinPool pool, PhaseAction phase) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            phase.invoke();
+        } else {
+            pool.invoke(phase);
+        }
+    }
+
+    /**
+     * Copy of the best allocation in the population.
+     */
+    public int[] best() {
+        return learners[best].moves.allocation().clone();
+    }
+
+    /**
+     * Makespan of the best allocation in the population.
+     */
+    public double bestMakespan() {
+        return learners[best].moves.makespan();
+    }
+
+    /**
+     * Fitness evaluations made by all learners so far.
+     */
+    public long evaluations() {
+        long total = 0;
+        for (Learner learner : learners) {
+            total += learner.evaluations;
+        }
+        return total;
+    }
+
+    /**
+     * Fitness cache lookups of all learners so far (0 without a cache).
+     */
+    public long fitnessCacheLookups() {
+        long total = 0;
+        for (Learner learner : learners) {
+            total += CachingMoveEvaluator.lookups(learner.moves);
+        }
+        return total;
+    }
+
+    /**
+     * Fitness cache hits of all learners so far.
+     */
+    public long fitnessCacheHits() {
+        long total = 0;
+        for (Learner learner : learners) {
+            total += CachingMoveEvaluator.hits(learner.moves);
+        }
+        return total;
+    }
+
+    /**
+     * Teacher Phase for one learner: tasks where the teacher departs from the class mean are
+     * taught, i.e. the learner tries the teacher's VM with probability r * TF (TF in {1, 2}).
+     */
+    private void teach(Learner learner) {
+        MoveEvaluator moves = learner.moves;
+        int[] own = moves.allocation();
+        double rate = learner.random.nextDouble() * (1 + learner.random.nextInt(2));
+        int accepted = 0;
+        int rejected = 0;
+        for (int i = 0; i < taskCount; i++) {
+            if ((i & (PlanningControl.CHECK_INTERVAL - 1)) == 0 && stopCheck.getAsBoolean()) {
+                break;
+            }
+            int target = teacher[i];
+            if (target == mean[i] || target == own[i] || learner.random.nextDouble() >= rate) {
+                continue;
+            }
+            if (learner.tryMove(i, target)) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        metrics.teacherPhase(accepted, rejected);
+    }
+
+    /**
+     * Learner Phase for one learner: pick a random partner; move toward it when the partner is
+     * better, otherwise move away from it (try a random other VM where both agree).
+     */
+    private void learn(int k, Learner learner) {
+        MoveEvaluator moves = learner.moves;
+        int[] own = moves.allocation();
+        int partner = learner.random.nextInt(learners.length - 1);
+        if (partner >= k) {
+            partner++;
+        }
+        int base = partner * taskCount;
+        boolean towardPartner = snapshotMakespan[partner] < snapshotMakespan[k];
+        double rate = learner.random.nextDouble();
+        int accepted = 0;
+        int rejected = 0;
+        for (int i = 0; i < taskCount; i++) {
+            if ((i & (PlanningControl.CHECK_INTERVAL - 1)) == 0 && stopCheck.getAsBoolean()) {
+                break;
+            }
+            int partnerVm = snapshot[base + i];
+            if ((partnerVm != own[i]) != towardPartner || learner.random.nextDouble() >= rate) {
+                continue;
+            }
+            int target = towardPartner ? partnerVm : learner.random.nextInt(vmCount);
+            if (target == own[i]) {
+                continue;
+            }
+            if (learner.tryMove(i, target)) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        metrics.learnerPhase(accepted, rejected);
+    }
+
+    /**
+     * Class mean of a discrete population: for each task, the VM most learners use
+     * (on ties, the VM that reached the top count first in learner order).
+     */
+    private void computeMean() {
+        for (int i = 0; i < taskCount; i++) {
+            int top = -1;
+            int topVotes = 0;
+            for (int k = 0; k < learners.length; k++) {
+                int vm = learners[k].moves.allocation()[i];
+                votedVms[k] = vm;
+                if (++voteCount[vm] > topVotes) {
+                    topVotes = voteCount[vm];
+                    top = vm;
+                }
+            }
+            mean[i] = top;
+            for (int k = 0; k < learners.length; k++) {
+                voteCount[votedVms[k]] = 0;
+            }
+        }
+    }
+
+    private void updateBest() {
+        for (int k = 0; k < learners.length; k++) {
+            if (learners[k].moves.makespan() < learners[best].moves.makespan()) {
+                best = k;
+            }
+        }
+    }
+
+    /**
+     * One member of the class: its allocation with its fitness state and its private random stream.
+     */
+    private static final class Learner {
+        // Per-VM loads of the learner's allocation, for the balance tie-break
+        final LoadMoveEvaluator loads;
+        // Makespan the learner minimizes (the load evaluator itself, or the DAG-aware one)
+        final MoveEvaluator moves;
+        final SplittableRandom random;
+        // Fitness evaluations made by this learner
+        long evaluations;
+
+        Learner(LoadMoveEvaluator loads, MoveEvaluator moves, SplittableRandom random) {
+            this.loads = loads;
+            this.moves = moves;
+            this.random = random;
+        }
+
+        void bind(int[] allocation) {
+            loads.bind(allocation);
+            if (moves != loads) {
+                moves.bind(allocation);
+            }
+        }
+
+        /**
+         * Evaluate moving a task to the target VM and commit the move if it lowers the makespan,
+         * or keeps it and lowers the sum of squared VM loads. Returns whether it was committed.
+         */
+        boolean tryMove(int taskIndex, int vmIndex) {
+            evaluations++;
+            double makespan = moves.makespan();
+            double newMakespan = moves.evaluateMove(taskIndex, vmIndex, makespan);
+            if (newMakespan < makespan
+                    || (newMakespan == makespan && loads.balanceDelta(taskIndex, vmIndex) < 0.0)) {
+                if (moves != loads) {
+                    moves.commitMove(taskIndex, vmIndex);
+                }
+                loads.commitMove(taskIndex, vmIndex);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Runs one phase over a range of learners, splitting the range in halves.
+     */
+    private final class PhaseAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean teacherPhase;
+        private final int from;
+        private final int to;
+
+        PhaseAction(boolean teacherPhase, int from, int to) {
+            this.teacherPhase = teacherPhase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PhaseAction(teacherPhase, from, mid), new PhaseAction(teacherPhase, mid, to));
+            } else if (teacherPhase) {
+                teach(learners[from]);
+            } else {
+                learn(from, learners[from]);
+            }
+        }
+    }
+}
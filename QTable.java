@@ -0,0 +1,221 @@
+package org.workflowsim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Primitive Q-table mapping a 64-bit state id and an action (VM index) to a Q-value.
+ *
+ * States are stored in an open-addressing (linear probing) index over primitive arrays, and
+ * the Q-values of each state live in one contiguous row of a flat double[] (row * actions + action).
+ * Lookup, argmax and update do not allocate; only growing the table does.
+ * Missing entries read as 0.0, matching the getOrDefault(key, 0.0) behaviour of the old map.
+ *
+ * A table can be warm-started from a {@link QTableSnapshot} of an earlier run: a state that is
+ * not in memory yet is looked up in the snapshot and its row copied in on first access, so
+ * startup costs nothing however large the snapshot is. {@link #save} writes the merged table back.
+ */
+class QTable {
+    private static final int INITIAL_ROWS = 64;
+
+    private final int actions;
+    // Open-addressing index: slot -> row + 1 (0 marks an empty slot)
+    private int[] slots;
+    private int mask;
+    // Row -> state id
+    private long[] rowKeys;
+    // Row-major Q-values, actions entries per row
+    private double[] values;
+    private int rows;
+    // Snapshot rows not copied in yet are read from here (null for a cold table)
+    private QTableSnapshot snapshot;
+    private final boolean warmStarted;
+
+    public QTable(int actions) {
+        this(actions, null);
+    }
+
+    /**
+     * Table that falls back to the given snapshot (may be null) for states it has not seen yet.
+     */
+    public QTable(int actions, QTableSnapshot snapshot) {
+        this.actions = actions;
+        this.snapshot = snapshot;
+        this.warmStarted = snapshot != null && snapshot.rows() > 0;
+        this.slots = new int[2 * INITIAL_ROWS];
+        this.mask = slots.length - 1;
+        this.rowKeys = new long[INITIAL_ROWS];
+        this.values = new double[INITIAL_ROWS * actions];
+    }
+
+    /**
+     * Whether the table started from a non-empty snapshot of an earlier run.
+     */
+    public boolean isWarmStarted() {
+        return warmStarted;
+    }
+
+    /**
+     * Number of states stored in memory (snapshot states count once they are touched).
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Q-value of the given state/action pair, 0.0 if the state was never updated.
+     */
+    public double get(long state, int action) {
+        int row = find(state);
+        return row < 0 ? 0.0 : values[row * actions + action];
+    }
+
+    /**
+     * Set the Q-value of the given state/action pair, inserting the state if needed.
+     */
+    public void set(long state, int action, double q) {
+        int row = row(state);
+        values[row * actions + action] = q;
+    }
+
+    /**
+     * Action with the highest Q-value in the given row (from {@link #find}); ties go to the lowest index.
+     */
+    public int argmaxAt(int row) {
+        int base = row * actions;
+        int best = 0;
+        double maxQ = values[base];
+        for (int i = 1; i < actions; i++) {
+            if (values[base + i] > maxQ) {
+                maxQ = values[base + i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Greedy action for the given state, or -1 if it is neither in memory nor in the snapshot.
+     * Unlike {@link #find}, it never copies a snapshot row in: it only reads, so several threads
+     * may call it at once as long as nothing writes to the table meanwhile.
+     */
+    public int peekArgmax(long state) {
+        for (int idx = (int) mix(state) & mask; ; idx = (idx + 1) & mask) {
+            int slot = slots[idx];
+            if (slot == 0) {
+                int saved = snapshot == null ? -1 : snapshot.find(state);
+                return saved < 0 ? -1 : snapshot.argmaxRow(saved);
+            }
+            if (rowKeys[slot - 1] == state) {
+                return argmaxAt(slot - 1);
+            }
+        }
+    }
+
+    /**
+     * Highest Q-value for the given state, 0.0 if the state was never updated.
+     */
+    public double max(long state) {
+        int row = find(state);
+        if (row < 0) {
+            return 0.0;
+        }
+        int base = row * actions;
+        double maxQ = values[base];
+        for (int i = 1; i < actions; i++) {
+            maxQ = Math.max(maxQ, values[base + i]);
+        }
+        return maxQ;
+    }
+
+    /**
+     * Row of the given state, or -1 if the state is not in the table.
+     */
+    public int find(long state) {
+        for (int idx = (int) mix(state) & mask; ; idx = (idx + 1) & mask) {
+            int slot = slots[idx];
+            if (slot == 0) {
+                return snapshot != null && snapshot.find(state) >= 0 ? row(state) : -1;
+            }
+            if (rowKeys[slot - 1] == state) {
+                return slot - 1;
+            }
+        }
+    }
+
+    /**
+     * Row of the given state, inserting a zero-initialised row if it is not present.
+     */
+    public int row(long state) {
+        int idx = (int) mix(state) & mask;
+        for (; slots[idx] != 0; idx = (idx + 1) & mask) {
+            if (rowKeys[slots[idx] - 1] == state) {
+                return slots[idx] - 1;
+            }
+        }
+        if (rows == rowKeys.length) {
+            grow();
+            return row(state);
+        }
+        int row = rows++;
+        rowKeys[row] = state;
+        slots[idx] = row + 1;
+        if (snapshot != null) {
+            int saved = snapshot.find(state);
+            if (saved >= 0) {
+                snapshot.copyRow(saved, values, row * actions);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Write every state (including snapshot states never touched in this run) to a snapshot file.
+     */
+    public void save(Path path, long encoderFingerprint) throws IOException {
+        if (snapshot != null) {
+            // Copy in the rest of the snapshot and drop it: the file it is mapped from is about to
+            // be replaced, and the mapping itself only goes away with the garbage collector.
+            for (int s = 0; s < snapshot.rows(); s++) {
+                row(snapshot.key(s));
+            }
+            snapshot = null;
+        }
+        long[] keys = Arrays.copyOf(rowKeys, rows);
+        Arrays.sort(keys);
+        double[] sorted = new double[rows * actions];
+        for (int k = 0; k < rows; k++) {
+            System.arraycopy(values, find(keys[k]) * actions, sorted, k * actions, actions);
+        }
+        QTableSnapshot.write(path, encoderFingerprint, actions, keys, sorted);
+    }
+
+    /**
+     * Double the row capacity and rehash the index (keeps the load factor at or below 1/2).
+     */
+    private void grow() {
+        int capacity = rowKeys.length * 2;
+        rowKeys = Arrays.copyOf(rowKeys, capacity);
+        values = Arrays.copyOf(values, capacity * actions);
+        slots = new int[2 * capacity];
+        mask = slots.length - 1;
+        for (int row = 0; row < rows; row++) {
+            int idx = (int) mix(rowKeys[row]) & mask;
+            while (slots[idx] != 0) {
+                idx = (idx + 1) & mask;
+            }
+            slots[idx] = row + 1;
+        }
+    }
+
+    /**
+     * 64-bit finalizer (SplitMix64) used to spread state ids over the index and to build them;
+     * also derives the {@link AllocationHash} keys and the {@link RandomStreams} seeds.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
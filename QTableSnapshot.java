@@ -0,0 +1,212 @@
+package org.workflowsim;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped Q-table saved by an earlier planning run.
+ *
+ * Layout (little-endian):
+ * <pre>
+ *   header  magic "RLQT" (int), version (int), state encoder fingerprint (long), actions (int), rows (int)
+ *   keys    rows longs, state ids in ascending order
+ *   values  rows * actions doubles, the Q-value row of each key in the same order
+ * </pre>
+ * A snapshot is only accepted for the same number of actions (VMs) and the same state encoder
+ * fingerprint, so state ids keep their meaning. Nothing is read up front: {@link QTable}
+ * looks states up by binary search over the mapped keys and copies a row in the first time
+ * the state is touched.
+ */
+final class QTableSnapshot {
+    static final int MAGIC = 0x54514C52; // bytes "RLQT" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private final int actions;
+    private final int rows;
+    private final LongBuffer keys;
+    private final DoubleBuffer values;
+
+    private QTableSnapshot(int actions, int rows, LongBuffer keys, DoubleBuffer values) {
+        this.actions = actions;
+        this.rows = rows;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Map a snapshot file, checking that it was written for the given encoder and action count.
+     *
+     * @throws IOException if the file cannot be read, is corrupt or is incompatible
+     */
+    static QTableSnapshot open(Path path, long encoderFingerprint, int actions) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a Q-table snapshot (too short): " + path);
+            }
+            MappedByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a Q-table snapshot (bad magic): " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported Q-table snapshot version " + version + ": " + path);
+            }
+            if (header.getLong() != encoderFingerprint) {
+                throw new IOException("Q-table snapshot was written by a different state encoder: " + path);
+            }
+            int fileActions = header.getInt();
+            if (fileActions != actions) {
+                throw new IOException("Q-table snapshot has " + fileActions + " actions, expected " + actions
+                        + ": " + path);
+            }
+            int rows = header.getInt();
+            long keyBytes = (long) rows * Long.BYTES;
+            long valueBytes = (long) rows * actions * Double.BYTES;
+            if (rows < 0 || fileSize < HEADER_BYTES + keyBytes + valueBytes) {
+                throw new IOException("Truncated Q-table snapshot: " + path);
+            }
+            // Mappings stay valid after the channel is closed.
+            return new QTableSnapshot(actions, rows,
+                    map(channel, HEADER_BYTES, keyBytes).asLongBuffer(),
+                    map(channel, HEADER_BYTES + keyBytes, valueBytes).asDoubleBuffer());
+        }
+    }
+
+    /**
+     * Write a snapshot through a temporary file that then replaces the target, so readers never
+     * see a half-written table. If the target cannot be replaced in place, it is moved aside first
+     * (see {@link #replaceMapped}).
+     *
+     * @param keys   state ids in ascending order
+     * @param values Q-value rows in the same order, actions entries each
+     */
+    static void write(Path path, long encoderFingerprint, int actions, long[] keys, double[] values)
+            throws IOException {
+        int rows = keys.length;
+        long keyBytes = (long) rows * Long.BYTES;
+        long valueBytes = (long) rows * actions * Double.BYTES;
+        Path target = path.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putLong(encoderFingerprint).putInt(actions).putInt(rows);
+                map(channel, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, keyBytes).asLongBuffer().put(keys);
+                map(channel, FileChannel.MapMode.READ_WRITE, HEADER_BYTES + keyBytes, valueBytes)
+                        .asDoubleBuffer().put(values, 0, rows * actions);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileSystemException e) {
+                replaceMapped(temp, target);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Replace a target that may still be memory-mapped. The snapshot a run started from stays
+     * mapped until its buffers are garbage collected, and Windows refuses to replace or delete a
+     * mapped file, but it can still be renamed: move it aside, move the new table in, then delete
+     * the old file, or leave that to JVM exit if it is still mapped.
+     */
+    private static void replaceMapped(Path temp, Path target) throws IOException {
+        Path aside = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".old");
+        Files.move(target, aside, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Files.move(temp, target);
+        } catch (IOException e) {
+            Files.move(aside, target);
+            throw e;
+        }
+        try {
+            Files.delete(aside);
+        } catch (IOException e) {
+            aside.toFile().deleteOnExit();
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long bytes) throws IOException {
+        return map(channel, FileChannel.MapMode.READ_ONLY, offset, bytes);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long bytes)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, offset, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Number of states in the snapshot.
+     */
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * State id of the given snapshot row.
+     */
+    long key(int row) {
+        return keys.get(row);
+    }
+
+    /**
+     * Snapshot row of the given state, or -1 if it is not in the snapshot (binary search).
+     */
+    int find(long state) {
+        int lo = 0;
+        int hi = rows - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long key = keys.get(mid);
+            if (key < state) {
+                lo = mid + 1;
+            } else if (key > state) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Action with the highest Q-value in the given snapshot row; ties go to the lowest index.
+     */
+    int argmaxRow(int row) {
+        int base = row * actions;
+        int best = 0;
+        double maxQ = values.get(base);
+        for (int a = 1; a < actions; a++) {
+            double q = values.get(base + a);
+            if (q > maxQ) {
+                maxQ = q;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copy the Q-values of the given snapshot row into dst[offset .. offset + actions).
+     */
+    void copyRow(int row, double[] dst, int offset) {
+        int base = row * actions;
+        for (int a = 0; a < actions; a++) {
+            dst[offset + a] = values.get(base + a);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.workflowsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded hierarchy of random streams for one planning run or batch.
+ *
+ * Every consumer gets its own {@link SplittableRandom} derived from the run seed, the planning
+ * stage and a stream number (the workflow of a batch, or a worker), so no generator is shared
+ * between threads and a stream's values depend only on the seed and its coordinates, not on
+ * how many other streams exist or in which order they were created. Stream seeds are the run
+ * seed offset by the coordinates and passed through the SplitMix64 finalizer ({@link QTable#mix},
+ * a bijection), so distinct coordinates get distinct seeds.
+ */
+final class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Planning stages that draw random numbers.
+     */
+    enum Stage {
+        // Stage 1 exploration of the RL agent
+        RL_ASSIGNMENT,
+        // Stage 2 partner choice and population perturbation
+        TLBO
+    }
+
+    private final long seed;
+
+    RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Streams seeded with {@link HybridPlanningParameters#getRandomSeed()}.
+     */
+    static RandomStreams fromParameters() {
+        return new RandomStreams(HybridPlanningParameters.getRandomSeed());
+    }
+
+    /**
+     * Seed of the given stream of a stage, for consumers that split their own sub-streams.
+     */
+    long seed(Stage stage, int stream) {
+        long key = ((stage.ordinal() + 1L) << 32) + (stream & 0xFFFFFFFFL);
+        return QTable.mix(seed + GOLDEN_GAMMA * key);
+    }
+
+    /**
+     * Fresh generator for the given stream of a stage; calling it twice returns two generators
+     * producing the same values.
+     */
+    SplittableRandom stream(Stage stage, int stream) {
+        return new SplittableRandom(seed(stage, stream));
+    }
+}
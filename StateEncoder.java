@@ -0,0 +1,36 @@
+package org.workflowsim;
+
+/**
+ * Maps what the RL agent observes to a 64-bit state id for the {@link QTable}.
+ *
+ * A state combines the task's length with a signature of the VM loads. The signature is the
+ * O(m) part and is computed once per load configuration, so a parallel wave, whose tasks all see
+ * the same loads, pays for it once. Encoders are called on every Stage 1 decision and are
+ * expected not to allocate. {@link #loadSignature} may keep scratch buffers and is therefore not
+ * thread-safe; {@link #encode(double, long)} must be a pure function, safe on any thread.
+ */
+interface StateEncoder {
+
+    /**
+     * Signature of the current VM loads, in O(m).
+     */
+    long loadSignature(VmLoadHeap vmLoads);
+
+    /**
+     * State of a task of the given length observed under loads with the given signature, in O(1).
+     */
+    long encode(double taskLength, long loadSignature);
+
+    /**
+     * State observed before placing a task: its length and the current VM loads.
+     */
+    default long encode(double taskLength, VmLoadHeap vmLoads) {
+        return encode(taskLength, loadSignature(vmLoads));
+    }
+
+    /**
+     * Identifies the encoding: two encoders with the same fingerprint map every observation to
+     * the same state id. Saved Q-tables are only reused by an encoder with the same fingerprint.
+     */
+    long fingerprint();
+}
@@ -0,0 +1,19 @@
+package org.workflowsim;
+
+/**
+ * Why the TLBO stage of a planning run stopped (see {@link HybridPlanningParameters}).
+ */
+public enum TLBOStopReason {
+    // The iteration cap was reached
+    MAX_ITERATIONS,
+    // The best makespan did not improve at all over the convergence window
+    STAGNATION,
+    // The best makespan improved by less than the minimum relative improvement over the window
+    CONVERGED,
+    // The wall-clock time limit of the TLBO stage or the planning deadline ran out
+    DEADLINE,
+    // The run was cancelled
+    CANCELLED,
+    // The fitness evaluation budget was used up
+    EVALUATION_BUDGET
+}
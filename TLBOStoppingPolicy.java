@@ -0,0 +1,129 @@
+package org.workflowsim;
+
+/**
+ * Decides when the TLBO stage stops, from the best makespan after each iteration, the number
+ * of fitness evaluations used and the elapsed time.
+ *
+ * The criteria are checked between iterations, in this order: cancellation and the planning
+ * deadline of the run's {@link PlanningControl}, evaluation budget, TLBO time limit,
+ * iteration cap, then convergence over a sliding window of the last {@code window} iterations
+ * (no improvement at all is {@link TLBOStopReason#STAGNATION}, an improvement below the
+ * relative threshold is {@link TLBOStopReason#CONVERGED}). A limit of 0 disables that
+ * criterion. Cancellation and both time limits are also polled inside the phases through
+ * {@link #interrupted()}, which ends an iteration early; the evaluation budget and the
+ * iteration cap only apply between iterations, so they may overshoot by one iteration.
+ */
+class TLBOStoppingPolicy {
+    private final int maxIterations;
+    private final int window;
+    private final double minRelativeImprovement;
+    private final long timeLimitNanos;
+    private final long maxEvaluations;
+    // Cancellation and planning deadline of the run (null = none)
+    private final PlanningControl control;
+    // Best makespan after each of the last window + 1 iterations (ring buffer, iteration 0 = start)
+    private final double[] history;
+    private int iterations;
+    private long evaluations;
+    private long startNanos;
+    private TLBOStopReason stopReason;
+
+    public TLBOStoppingPolicy(int maxIterations, int window, double minRelativeImprovement, long timeLimitMillis,
+            long maxEvaluations, PlanningControl control) {
+        this.maxIterations = maxIterations;
+        this.window = window;
+        this.minRelativeImprovement = minRelativeImprovement;
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+        this.maxEvaluations = maxEvaluations;
+        this.control = control;
+        this.history = new double[window + 1];
+    }
+
+    /**
+     * Policy configured from {@link HybridPlanningParameters}, also stopping when the given
+     * control (may be null) is cancelled or past its deadline.
+     */
+    public static TLBOStoppingPolicy fromParameters(PlanningControl control) {
+        return new TLBOStoppingPolicy(HybridPlanningParameters.getMaxTlboIterations(),
+                HybridPlanningParameters.getConvergenceWindow(),
+                HybridPlanningParameters.getMinRelativeImprovement(),
+                HybridPlanningParameters.getTlboTimeLimitMillis(),
+                HybridPlanningParameters.getMaxTlboEvaluations(), control);
+    }
+
+    /**
+     * Start the clock, with the makespan of the allocation entering TLBO.
+     */
+    public void start(double makespan) {
+        startNanos = System.nanoTime();
+        iterations = 0;
+        evaluations = 0;
+        stopReason = null;
+        history[0] = makespan;
+    }
+
+    /**
+     * Record a finished iteration: the best makespan so far and the total evaluations so far.
+     */
+    public void record(double bestMakespan, long totalEvaluations) {
+        iterations++;
+        evaluations = totalEvaluations;
+        history[iterations % history.length] = bestMakespan;
+    }
+
+    /**
+     * Whether to stop before the next iteration; once true, {@link #stopReason()} says why.
+     */
+    public boolean shouldStop() {
+        if (control != null && control.isCancelled()) {
+            stopReason = TLBOStopReason.CANCELLED;
+        } else if (control != null && control.deadlinePassed()) {
+            stopReason = TLBOStopReason.DEADLINE;
+        } else if (maxEvaluations > 0 && evaluations >= maxEvaluations) {
+            stopReason = TLBOStopReason.EVALUATION_BUDGET;
+        } else if (timeLimitPassed()) {
+            stopReason = TLBOStopReason.DEADLINE;
+        } else if (iterations >= maxIterations) {
+            stopReason = TLBOStopReason.MAX_ITERATIONS;
+        } else if (window > 0 && iterations >= window) {
+            double before = history[(iterations - window) % history.length];
+            double now = history[iterations % history.length];
+            if (now >= before) {
+                stopReason = TLBOStopReason.STAGNATION;
+            } else if (before - now < minRelativeImprovement * before) {
+                stopReason = TLBOStopReason.CONVERGED;
+            }
+        }
+        return stopReason != null;
+    }
+
+    /**
+     * Cheap check for the phases: whether the run was cancelled or a time limit ran out.
+     * Thread-safe, so population workers may poll it.
+     */
+    public boolean interrupted() {
+        return (control != null && control.stopRequested()) || timeLimitPassed();
+    }
+
+    private boolean timeLimitPassed() {
+        return timeLimitNanos > 0 && System.nanoTime() - startNanos >= timeLimitNanos;
+    }
+
+    public TLBOStopReason stopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Iterations recorded since {@link #start}.
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * Fitness evaluations recorded since {@link #start}.
+     */
+    public long evaluations() {
+        return evaluations;
+    }
+}
@@ -0,0 +1,99 @@
+package org.workflowsim;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense index over a workflow's tasks: task i is the task at position i of the planning list.
+ *
+ * Built once per planning run so that every internal structure (allocation, timeline,
+ * optimizer arrays) can be keyed by an int instead of a Task object or a boxed cloudlet id.
+ * When cloudlet ids are unique and compact (range at most twice the task count) the reverse
+ * lookup is a plain int[] indexed by id; otherwise it falls back to an IdentityHashMap.
+ */
+class TaskIndex {
+    private final List<Task> tasks;
+    // Compact reverse lookup: byId[cloudletId - minId] = index (null when ids are not compact)
+    private final int[] byId;
+    private final int minId;
+    // Fallback reverse lookup (null when byId is used)
+    private final Map<Task, Integer> byTask;
+
+    public TaskIndex(List<Task> tasks) {
+        this.tasks = tasks;
+        int n = tasks.size();
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Task task : tasks) {
+            min = Math.min(min, task.getCloudletId());
+            max = Math.max(max, task.getCloudletId());
+        }
+        int[] ids = null;
+        if (n > 0 && (long) max - min < 2L * n) {
+            ids = new int[max - min + 1];
+            for (int i = 0; i < n; i++) {
+                int slot = tasks.get(i).getCloudletId() - min;
+                if (ids[slot] != 0) {
+                    // Duplicate cloudlet id, ids cannot be used as keys.
+                    ids = null;
+                    break;
+                }
+                ids[slot] = i + 1;
+            }
+        }
+        if (ids != null) {
+            for (int k = 0; k < ids.length; k++) {
+                ids[k]--;
+            }
+            this.byId = ids;
+            this.minId = min;
+            this.byTask = null;
+        } else {
+            this.byId = null;
+            this.minId = 0;
+            this.byTask = new IdentityHashMap<>(2 * n);
+            for (int i = 0; i < n; i++) {
+                byTask.put(tasks.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Number of indexed tasks.
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Task at the given dense index.
+     */
+    public Task task(int index) {
+        return tasks.get(index);
+    }
+
+    /**
+     * The indexed tasks, in index order.
+     */
+    public List<Task> tasks() {
+        return tasks;
+    }
+
+    /**
+     * Dense index of the given task, or -1 if it is not part of this workflow.
+     */
+    public int indexOf(Task task) {
+        if (byId != null) {
+            int slot = task.getCloudletId() - minId;
+            if (slot < 0 || slot >= byId.length) {
+                return -1;
+            }
+            int index = byId[slot];
+            // Same id is not enough, the task must be the indexed instance.
+            return index >= 0 && tasks.get(index) == task ? index : -1;
+        }
+        Integer index = byTask.get(task);
+        return index == null ? -1 : index;
+    }
+}
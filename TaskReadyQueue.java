@@ -0,0 +1,155 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+
+/**
+ * Kahn-style ready queue over a workflow's tasks.
+ *
+ * Tasks are addressed by their {@link TaskIndex} dense index. Each task keeps an
+ * in-degree counter of unscheduled parents and the child adjacency is stored in flat
+ * (CSR) arrays, so every task and dependency edge is touched once over a whole pass.
+ * Parents that are not part of the task list are treated as already scheduled.
+ *
+ * Two release modes are supported:
+ * - WAVE: tasks are handed out level by level; children become ready only once the whole
+ *   current wave has been handed out (the original Stage 1 semantics). Within a wave tasks
+ *   come in task list order.
+ * - STREAMING: a task's children are released as soon as the task itself is handed out.
+ */
+class TaskReadyQueue {
+
+    public enum ReleaseMode {
+        WAVE, STREAMING
+    }
+
+    private final ReleaseMode mode;
+    private final int[] inDegree;
+    // Children of task i are childIndex[childStart[i] .. childStart[i + 1])
+    private final int[] childStart;
+    private final int[] childIndex;
+    // Ready tasks in hand-out order; waves are contiguous segments of this array
+    private final int[] order;
+    private int head;
+    private int tail;
+    // Current wave is order[waveStart .. waveEnd) (WAVE mode only)
+    private int waveStart;
+    private int waveEnd;
+
+    public TaskReadyQueue(TaskIndex tasks, ReleaseMode mode) {
+        this.mode = mode;
+        int n = tasks.size();
+
+        // Count in-degrees and out-degrees, then fill the child adjacency.
+        inDegree = new int[n];
+        childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (Task parent : tasks.task(i).getParentList()) {
+                int p = tasks.indexOf(parent);
+                if (p >= 0) {
+                    inDegree[i]++;
+                    childStart[p + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        childIndex = new int[childStart[n]];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int i = 0; i < n; i++) {
+            for (Task parent : tasks.task(i).getParentList()) {
+                int p = tasks.indexOf(parent);
+                if (p >= 0) {
+                    childIndex[fill[p]++] = i;
+                }
+            }
+        }
+
+        // Seed the queue with the roots, in task list order.
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        waveEnd = tail;
+    }
+
+    /**
+     * Whether another task is ready to be handed out.
+     */
+    public boolean hasNext() {
+        if (head < tail) {
+            return true;
+        }
+        if (mode == ReleaseMode.WAVE && waveStart < waveEnd) {
+            advanceWave();
+        }
+        return head < tail;
+    }
+
+    /**
+     * Hand out the next ready task (dense index). Callers must check {@link #hasNext()} first.
+     */
+    public int next() {
+        if (mode == ReleaseMode.WAVE) {
+            if (head == waveEnd) {
+                advanceWave();
+            }
+            return order[head++];
+        }
+        int task = order[head++];
+        release(task);
+        return task;
+    }
+
+    /**
+     * Hand out the rest of the current wave at once (WAVE mode only): its tasks are copied into
+     * {@code into}, in the order {@link #next()} would return them, and their number returned.
+     * The tasks of a wave do not depend on each other. Callers must check {@link #hasNext()} first.
+     */
+    public int nextWave(int[] into) {
+        if (mode != ReleaseMode.WAVE) {
+            throw new IllegalStateException("Waves are only handed out in WAVE mode");
+        }
+        if (head == waveEnd) {
+            advanceWave();
+        }
+        int count = waveEnd - head;
+        System.arraycopy(order, head, into, 0, count);
+        head = waveEnd;
+        return count;
+    }
+
+    /**
+     * Number of tasks handed out so far.
+     */
+    public int scheduledCount() {
+        return head;
+    }
+
+    /**
+     * Release the children of the finished wave and make them the current wave.
+     */
+    private void advanceWave() {
+        for (int k = waveStart; k < waveEnd; k++) {
+            release(order[k]);
+        }
+        waveStart = waveEnd;
+        waveEnd = tail;
+        // Keep task list order within a wave, like the original rescanning loop.
+        Arrays.sort(order, waveStart, waveEnd);
+    }
+
+    /**
+     * Decrement the in-degree of every child of the given task, queueing those that become ready.
+     */
+    private void release(int task) {
+        for (int e = childStart[task]; e < childStart[task + 1]; e++) {
+            int child = childIndex[e];
+            if (--inDegree[child] == 0) {
+                order[tail++] = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.workflowsim;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Planned start and finish time of every task, stored column-wise by dense task index.
+ *
+ * Each column is a {@link DoubleBuffer}: either a wrapped heap {@code double[]} or, for very
+ * large workflows, a direct (off-heap) buffer in native byte order, so millions of tasks cost
+ * 16 bytes each and nothing the garbage collector has to trace. Both backings are read and
+ * written through the same absolute get/put calls. Task indices are those of the
+ * {@link TaskIndex} of the planning run that filled the timeline.
+ */
+public final class TaskTimeline {
+    private final int size;
+    private final boolean offHeap;
+    // Start and finish time of each task
+    private final DoubleBuffer start;
+    private final DoubleBuffer finish;
+
+    /**
+     * Timeline for the given number of tasks, all times 0.
+     *
+     * @param offHeap whether to keep the columns in direct buffers outside the Java heap
+     */
+    public TaskTimeline(int size, boolean offHeap) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative task count: " + size);
+        }
+        this.size = size;
+        this.offHeap = offHeap;
+        this.start = column(size, offHeap);
+        this.finish = column(size, offHeap);
+    }
+
+    private static DoubleBuffer column(int size, boolean offHeap) {
+        if (!offHeap) {
+            return DoubleBuffer.wrap(new double[size]);
+        }
+        return ByteBuffer.allocateDirect(Math.multiplyExact(size, Double.BYTES))
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+    }
+
+    /**
+     * Number of tasks in the timeline.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the columns live outside the Java heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Planned start time of the task at the given dense index.
+     */
+    public double startTime(int taskIndex) {
+        return start.get(taskIndex);
+    }
+
+    /**
+     * Planned finish time of the task at the given dense index.
+     */
+    public double finishTime(int taskIndex) {
+        return finish.get(taskIndex);
+    }
+
+    /**
+     * Record the start and finish time of the task at the given dense index.
+     */
+    void set(int taskIndex, double startTime, double finishTime) {
+        start.put(taskIndex, startTime);
+        finish.put(taskIndex, finishTime);
+    }
+
+    /**
+     * Read-only view of the start column (position 0, limit size).
+     */
+    public DoubleBuffer startTimes() {
+        return start.asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the finish column (position 0, limit size).
+     */
+    public DoubleBuffer finishTimes() {
+        return finish.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,108 @@
+package org.workflowsim;
+
+/**
+ * Indexed binary min-heap of VM loads (predicted finish times), keyed by VM index.
+ *
+ * Loads, heap slots and the vm -> slot positions are plain primitive arrays, so reading a
+ * VM's load is O(1) and changing it (increase or decrease) is an O(log m) sift instead of
+ * the linear remove/add of a PriorityQueue. The least-loaded VM is always at the root.
+ */
+class VmLoadHeap {
+    // Load of each VM, indexed by VM index
+    private final double[] load;
+    // heap[k] = VM index stored at heap slot k
+    private final int[] heap;
+    // pos[vm] = heap slot holding the VM
+    private final int[] pos;
+
+    public VmLoadHeap(int vmCount) {
+        this.load = new double[vmCount];
+        this.heap = new int[vmCount];
+        this.pos = new int[vmCount];
+        for (int vm = 0; vm < vmCount; vm++) {
+            heap[vm] = vm;
+            pos[vm] = vm;
+        }
+    }
+
+    /**
+     * Number of VMs in the heap.
+     */
+    public int size() {
+        return load.length;
+    }
+
+    /**
+     * Current load of the given VM.
+     */
+    public double load(int vm) {
+        return load[vm];
+    }
+
+    /**
+     * Index of the least-loaded VM.
+     */
+    public int peekMin() {
+        return heap[0];
+    }
+
+    /**
+     * Load of the least-loaded VM.
+     */
+    public double minLoad() {
+        return load[heap[0]];
+    }
+
+    /**
+     * Set the load of the given VM, restoring the heap order in O(log m).
+     */
+    public void setLoad(int vm, double newLoad) {
+        double oldLoad = load[vm];
+        load[vm] = newLoad;
+        if (newLoad < oldLoad) {
+            siftUp(pos[vm]);
+        } else if (newLoad > oldLoad) {
+            siftDown(pos[vm]);
+        }
+    }
+
+    private void siftUp(int k) {
+        int vm = heap[k];
+        double key = load[vm];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            int parentVm = heap[parent];
+            if (load[parentVm] <= key) {
+                break;
+            }
+            heap[k] = parentVm;
+            pos[parentVm] = k;
+            k = parent;
+        }
+        heap[k] = vm;
+        pos[vm] = k;
+    }
+
+    private void siftDown(int k) {
+        int n = heap.length;
+        int vm = heap[k];
+        double key = load[vm];
+        int half = n >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            int right = child + 1;
+            if (right < n && load[heap[right]] < load[heap[child]]) {
+                child = right;
+            }
+            int childVm = heap[child];
+            if (key <= load[childVm]) {
+                break;
+            }
+            heap[k] = childVm;
+            pos[childVm] = k;
+            k = child;
+        }
+        heap[k] = vm;
+        pos[vm] = k;
+    }
+}
@@ -0,0 +1,122 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+
+/**
+ * Per-VM load vector with a max segment tree on top of it.
+ *
+ * The tree keeps the maximum VM load (the makespan of a load-only schedule) available in O(1)
+ * and lets the optimizer ask "what would the makespan be if VM a and VM b had these loads"
+ * in O(log m) without touching the stored values, so a single task move can be evaluated
+ * and committed without rescanning the allocation.
+ */
+class VmLoadTree {
+    private final int vmCount;
+    // Number of leaves (smallest power of two >= vmCount)
+    private final int leaves;
+    // tree[leaves + v] holds the load of VM v, tree[k] = max(tree[2k], tree[2k + 1])
+    private final double[] tree;
+
+    public VmLoadTree(int vmCount) {
+        this.vmCount = vmCount;
+        int size = 1;
+        while (size < vmCount) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new double[2 * size];
+    }
+
+    public int size() {
+        return vmCount;
+    }
+
+    /**
+     * Rebuild the tree from a full load vector in O(m).
+     */
+    public void reset(double[] loads) {
+        Arrays.fill(tree, 0.0);
+        System.arraycopy(loads, 0, tree, leaves, vmCount);
+        for (int k = leaves - 1; k > 0; k--) {
+            tree[k] = Math.max(tree[2 * k], tree[2 * k + 1]);
+        }
+    }
+
+    /**
+     * Current load of the given VM.
+     */
+    public double get(int vm) {
+        return tree[leaves + vm];
+    }
+
+    /**
+     * Set the load of the given VM and restore the max invariant along its path.
+     */
+    public void set(int vm, double load) {
+        int k = leaves + vm;
+        tree[k] = load;
+        for (k >>= 1; k > 0; k >>= 1) {
+            double max = Math.max(tree[2 * k], tree[2 * k + 1]);
+            if (tree[k] == max) {
+                break;
+            }
+            tree[k] = max;
+        }
+    }
+
+    /**
+     * Add a (possibly negative) delta to the load of the given VM.
+     */
+    public void add(int vm, double delta) {
+        set(vm, tree[leaves + vm] + delta);
+    }
+
+    /**
+     * Maximum load over all VMs.
+     */
+    public double max() {
+        return tree[1];
+    }
+
+    /**
+     * Maximum load over all VMs if VM a had load loadA and VM b had load loadB.
+     * Nothing is modified; a and b may be equal, in which case loadB wins.
+     */
+    public double maxWith(int a, double loadA, int b, double loadB) {
+        if (a == b) {
+            return Math.max(maxExcluding(a, a), loadB);
+        }
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        return Math.max(maxExcluding(lo, hi), Math.max(loadA, loadB));
+    }
+
+    /**
+     * Maximum over all VMs except lo and hi (lo <= hi).
+     */
+    private double maxExcluding(int lo, int hi) {
+        double max = rangeMax(0, lo - 1);
+        max = Math.max(max, rangeMax(lo + 1, hi - 1));
+        return Math.max(max, rangeMax(hi + 1, vmCount - 1));
+    }
+
+    /**
+     * Maximum over the inclusive VM range [from, to]; 0 when the range is empty.
+     */
+    private double rangeMax(int from, int to) {
+        double max = 0.0;
+        int l = from + leaves;
+        int r = to + leaves + 1;
+        while (l < r) {
+            if ((l & 1) == 1) {
+                max = Math.max(max, tree[l++]);
+            }
+            if ((r & 1) == 1) {
+                max = Math.max(max, tree[--r]);
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return max;
+    }
+}
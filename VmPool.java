@@ -0,0 +1,76 @@
+package org.workflowsim;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * VM-side tables of a planning run, built once per VM list and shared by every workflow
+ * planned against it: the MIPS class of each VM (VMs with equal MIPS share a class) and each
+ * VM's bandwidth in bytes per second. Immutable, so safe to share between threads.
+ */
+class VmPool {
+    private final int vmCount;
+    // VM index -> MIPS class
+    private final int[] vmClass;
+    // MIPS of each class
+    private final double[] classMips;
+    // Bandwidth of each VM in bytes per second (0 = no transfer delay)
+    private final double[] bytesPerSecond;
+
+    public VmPool(List<Vm> vmList) {
+        this.vmCount = vmList.size();
+        this.vmClass = new int[vmCount];
+        this.bytesPerSecond = new double[vmCount];
+        Map<Double, Integer> classes = new HashMap<>();
+        double[] mips = new double[vmCount];
+        for (int v = 0; v < vmCount; v++) {
+            Vm vm = vmList.get(v);
+            double vmMips = vm.getMips();
+            Integer cls = classes.get(vmMips);
+            if (cls == null) {
+                cls = classes.size();
+                classes.put(vmMips, cls);
+                mips[cls] = vmMips;
+            }
+            vmClass[v] = cls;
+            // CloudSim bandwidth is in Mbit/s.
+            bytesPerSecond[v] = Math.max(0.0, vm.getBw() * 1e6 / 8.0);
+        }
+        this.classMips = new double[classes.size()];
+        System.arraycopy(mips, 0, classMips, 0, classMips.length);
+    }
+
+    public int vmCount() {
+        return vmCount;
+    }
+
+    /**
+     * Number of distinct MIPS classes.
+     */
+    public int classCount() {
+        return classMips.length;
+    }
+
+    /**
+     * MIPS class of the given VM.
+     */
+    public int vmClass(int vmIndex) {
+        return vmClass[vmIndex];
+    }
+
+    /**
+     * MIPS of the given class.
+     */
+    public double classMips(int vmClassIndex) {
+        return classMips[vmClassIndex];
+    }
+
+    /**
+     * Bandwidth of the given VM in bytes per second.
+     */
+    public double bytesPerSecond(int vmIndex) {
+        return bytesPerSecond[vmIndex];
+    }
+}
@@ -0,0 +1,207 @@
+package org.workflowsim;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Vm;
+import org.workflowsim.utils.Parameters.FileType;
+
+/**
+ * Immutable precedence and data-transfer model of a workflow, built once per planning run.
+ *
+ * Holds a topological order of the dense task indices (the Stage 1 wave order), each task's rank
+ * in it, and the parent and child edges in CSR form. Every parent edge carries the total size of
+ * the files the parent outputs and the child reads as input. A transfer between two
+ * different VMs takes bytes / (slower of the two VM bandwidths); on the same VM it is free.
+ * VM bandwidth follows the CloudSim convention (Mbit/s); a non-positive bandwidth disables
+ * transfer delays for that VM.
+ */
+class WorkflowDag {
+    private final int taskCount;
+    // Topological order (rank -> task) and its inverse (task -> rank)
+    private final int[] order;
+    private final int[] rank;
+    // Parents of task i are parentIndex[parentStart[i] .. parentStart[i + 1])
+    private final int[] parentStart;
+    private final int[] parentIndex;
+    // Bytes carried by each parent edge (same layout as parentIndex)
+    private final double[] edgeBytes;
+    // Children of task i are childIndex[childStart[i] .. childStart[i + 1])
+    private final int[] childStart;
+    private final int[] childIndex;
+    // Bandwidth of each VM in bytes per second (0 = no transfer delay)
+    private final double[] vmBytesPerSecond;
+
+    public WorkflowDag(TaskIndex taskIndex, List<Vm> vmList) {
+        this(taskIndex, new VmPool(vmList));
+    }
+
+    public WorkflowDag(TaskIndex taskIndex, VmPool vmPool) {
+        this.taskCount = taskIndex.size();
+
+        this.order = new int[taskCount];
+        this.rank = new int[taskCount];
+        TaskReadyQueue readyQueue = new TaskReadyQueue(taskIndex, TaskReadyQueue.ReleaseMode.WAVE);
+        int position = 0;
+        while (readyQueue.hasNext()) {
+            int task = readyQueue.next();
+            order[position] = task;
+            rank[task] = position++;
+        }
+        if (position < taskCount) {
+            throw new IllegalStateException("Workflow contains a dependency cycle: "
+                    + (taskCount - position) + " tasks can never become ready");
+        }
+
+        this.parentStart = new int[taskCount + 1];
+        for (int i = 0; i < taskCount; i++) {
+            int parents = 0;
+            for (Task parent : taskIndex.task(i).getParentList()) {
+                if (taskIndex.indexOf(parent) >= 0) {
+                    parents++;
+                }
+            }
+            parentStart[i + 1] = parentStart[i] + parents;
+        }
+        this.parentIndex = new int[parentStart[taskCount]];
+        this.edgeBytes = new double[parentStart[taskCount]];
+        for (int i = 0; i < taskCount; i++) {
+            Task task = taskIndex.task(i);
+            int e = parentStart[i];
+            for (Task parent : task.getParentList()) {
+                int p = taskIndex.indexOf(parent);
+                if (p >= 0) {
+                    parentIndex[e] = p;
+                    edgeBytes[e] = sharedBytes(parent, task);
+                    e++;
+                }
+            }
+        }
+
+        this.childStart = new int[taskCount + 1];
+        for (int e = 0; e < parentIndex.length; e++) {
+            childStart[parentIndex[e] + 1]++;
+        }
+        for (int i = 0; i < taskCount; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        this.childIndex = new int[parentIndex.length];
+        int[] fill = Arrays.copyOf(childStart, taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            for (int e = parentStart[i]; e < parentStart[i + 1]; e++) {
+                childIndex[fill[parentIndex[e]]++] = i;
+            }
+        }
+
+        this.vmBytesPerSecond = new double[vmPool.vmCount()];
+        for (int v = 0; v < vmBytesPerSecond.length; v++) {
+            vmBytesPerSecond[v] = vmPool.bytesPerSecond(v);
+        }
+    }
+
+    public int taskCount() {
+        return taskCount;
+    }
+
+    public int vmCount() {
+        return vmBytesPerSecond.length;
+    }
+
+    /**
+     * Whether any task depends on another task of the workflow.
+     */
+    public boolean hasDependencies() {
+        return parentIndex.length > 0;
+    }
+
+    /**
+     * Task at the given position of the topological order.
+     */
+    public int taskAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Position of the given task in the topological order.
+     */
+    public int rank(int taskIndex) {
+        return rank[taskIndex];
+    }
+
+    /**
+     * First parent edge of the given task; its edges run up to {@code parentEnd(task)}.
+     */
+    public int parentStart(int taskIndex) {
+        return parentStart[taskIndex];
+    }
+
+    public int parentEnd(int taskIndex) {
+        return parentStart[taskIndex + 1];
+    }
+
+    /**
+     * Parent task of the given edge.
+     */
+    public int parent(int edge) {
+        return parentIndex[edge];
+    }
+
+    /**
+     * First child slot of the given task; its children run up to {@code childEnd(task)}.
+     */
+    public int childStart(int taskIndex) {
+        return childStart[taskIndex];
+    }
+
+    public int childEnd(int taskIndex) {
+        return childStart[taskIndex + 1];
+    }
+
+    /**
+     * Child task stored in the given child slot.
+     */
+    public int child(int slot) {
+        return childIndex[slot];
+    }
+
+    /**
+     * Time to move the data of the given edge from a parent on VM {@code from} to a child on VM {@code to}.
+     */
+    public double transferTime(int edge, int from, int to) {
+        double bytes = edgeBytes[edge];
+        if (from == to || bytes == 0.0) {
+            return 0.0;
+        }
+        double rate = Math.min(vmBytesPerSecond[from], vmBytesPerSecond[to]);
+        return rate > 0.0 ? bytes / rate : 0.0;
+    }
+
+    /**
+     * Bytes of the files the parent produces and the child consumes (matched by file name).
+     */
+    private static double sharedBytes(Task parent, Task child) {
+        Map<String, Double> outputs = null;
+        for (FileItem file : parent.getFileList()) {
+            if (file.getType() == FileType.OUTPUT) {
+                if (outputs == null) {
+                    outputs = new HashMap<>();
+                }
+                outputs.put(file.getName(), file.getSize());
+            }
+        }
+        if (outputs == null) {
+            return 0.0;
+        }
+        double bytes = 0.0;
+        for (FileItem file : child.getFileList()) {
+            if (file.getType() == FileType.INPUT) {
+                Double size = outputs.get(file.getName());
+                if (size != null) {
+                    bytes += size;
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,113 @@
+package org.workflowsim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Result of planning one workflow: the final allocation, the DAG-aware task timeline, the
+ * per-VM loads and the makespan. Per-task arrays are keyed by the dense task index of the
+ * planned task list; the {@link Task}-based accessors do that lookup.
+ */
+public final class WorkflowPlan {
+    private final TaskIndex tasks;
+    private final int[] allocation;
+    private final TaskTimeline timeline;
+    private final double[] vmLoads;
+    private final double makespan;
+    // How the TLBO stage ended
+    private final TLBOStopReason tlboStopReason;
+    private final int tlboIterations;
+    private final long tlboEvaluations;
+
+    WorkflowPlan(TaskIndex tasks, int[] allocation, TaskTimeline timeline, double[] vmLoads, double makespan,
+            TLBOStopReason tlboStopReason, int tlboIterations, long tlboEvaluations) {
+        this.tasks = tasks;
+        this.allocation = allocation;
+        this.timeline = timeline;
+        this.vmLoads = vmLoads;
+        this.makespan = makespan;
+        this.tlboStopReason = tlboStopReason;
+        this.tlboIterations = tlboIterations;
+        this.tlboEvaluations = tlboEvaluations;
+    }
+
+    public int getTaskCount() {
+        return allocation.length;
+    }
+
+    /**
+     * VM index of each task, by dense task index (a copy).
+     */
+    public int[] getAllocation() {
+        return allocation.clone();
+    }
+
+    /**
+     * VM index the given task is assigned to.
+     */
+    public int getVmIndex(Task task) {
+        return allocation[indexOf(task)];
+    }
+
+    /**
+     * Planned start and finish times, by dense task index.
+     */
+    public TaskTimeline getTimeline() {
+        return timeline;
+    }
+
+    public double getStartTime(Task task) {
+        return timeline.startTime(indexOf(task));
+    }
+
+    public double getFinishTime(Task task) {
+        return timeline.finishTime(indexOf(task));
+    }
+
+    /**
+     * Total execution time assigned to each VM (a copy).
+     */
+    public double[] getVmLoads() {
+        return vmLoads.clone();
+    }
+
+    /**
+     * DAG-aware makespan of the plan (precedence and data transfers included).
+     */
+    public double getMakespan() {
+        return makespan;
+    }
+
+    /**
+     * Why the TLBO stage stopped.
+     */
+    public TLBOStopReason getTlboStopReason() {
+        return tlboStopReason;
+    }
+
+    public int getTlboIterations() {
+        return tlboIterations;
+    }
+
+    /**
+     * Fitness evaluations (candidate moves tried) the TLBO stage used.
+     */
+    public long getTlboEvaluations() {
+        return tlboEvaluations;
+    }
+
+    /**
+     * Write the plan to a memory-mappable {@link PlanResultFile}.
+     */
+    public void export(Path path) throws IOException {
+        PlanResultFile.write(path, allocation, timeline, vmLoads, makespan);
+    }
+
+    private int indexOf(Task task) {
+        int index = tasks.indexOf(task);
+        if (index < 0) {
+            throw new IllegalArgumentException("Task " + task.getCloudletId() + " is not part of this plan");
+        }
+        return index;
+    }
+}
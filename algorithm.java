@@ -1,6 +1,13 @@
   package org.workflowsim;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
 import org.cloudbus.cloudsim.Vm;
 import org.workflowsim.planning.BasePlanningAlgorithm;
 import org.workflowsim.utils.Parameters;
@@ -19,242 +26,634 @@ import org.workflowsim.utils.Parameters;
  * - 2408.02938v1.pdf
  */
 public class ALG_3PlanningAlgorithm extends BasePlanningAlgorithm {
-    // Store task timeline data: task id -> {start time, finish time}
-    private Map<Integer, double[]> taskTimeline = new HashMap<>();
+    // Result of the last run (null before the first run)
+    private WorkflowPlan lastPlan;
+    // Cancellation, deadline and best-so-far plan of the run in progress (or the last one)
+    private volatile PlanningControl control;
+    // Metrics of the run in progress (or the last one); DISABLED unless turned on in HybridPlanningParameters
+    private volatile PlanningMetrics metrics = PlanningMetrics.DISABLED;
 
-    // Maximum number of global optimization iterations (TLBO iterations)
-    private static final int MAX_TLBO_ITER = 100;
+    // Worker threads for population TLBO
+    private static final int TLBO_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    // Task count from which the timeline is kept off-heap
+    private static final int OFF_HEAP_TIMELINE_TASKS = 1_000_000;
+
+    // Tasks scored by one fork-join leaf when a Stage 1 wave is scored in parallel
+    private static final int WAVE_SCORING_GRAIN = 256;
 
     @Override
     public void run() {
         System.out.println("Running Hybrid RL-TLBO Scheduling Algorithm");
+        // Anytime mode: the deadline clock starts now; Stage 1 always completes, TLBO stops at the deadline.
+        PlanningControl runControl = new PlanningControl(HybridPlanningParameters.getPlanningDeadlineMillis());
+        control = runControl;
+        metrics = HybridPlanningParameters.isMetricsEnabled() ? new PlanningMetrics() : PlanningMetrics.DISABLED;
+        RandomStreams streams = RandomStreams.fromParameters();
 
         List<Vm> vmList = getVmList();
-        // Create a modifiable task list from the original task list
-        List<Task> remainingTasks = new ArrayList<>(getTaskList());
-        int taskNum = remainingTasks.size();
+        // VM-side tables (MIPS classes, bandwidths) every per-workflow structure is built from
+        VmPool vmPool = new VmPool(vmList);
+
+        // Create RL agent (warm-started from the saved Q-table, if any)
+        StateEncoder stateEncoder = new BucketStateEncoder();
+        RLAgent rlAgent = new RLAgent(vmList, stateEncoder, loadQTable(vmList.size(), stateEncoder),
+                streams.stream(RandomStreams.Stage.RL_ASSIGNMENT, 0));
 
-        // Allocation: allocation[i] holds the VM id for the task at index i
         // We maintain a consistent ordering by recording tasks in a separate list.
-        List<Task> allTasks = new ArrayList<>(remainingTasks);
+        WorkflowJob job = assign(new ArrayList<>(getTaskList()), vmPool, rlAgent);
+        boolean population = HybridPlanningParameters.getTlboPopulation() > 1;
+        ForkJoinPool pool = population ? new ForkJoinPool(TLBO_PARALLELISM) : null;
+        try {
+            lastPlan = refine(job, pool, runControl, true, streams.seed(RandomStreams.Stage.TLBO, 0));
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        saveQTable(rlAgent);
+
+        // Display the overall makespan after optimization.
+        displayMakespan(lastPlan.getVmLoads());
+        System.out.println("TLBO stopped (" + lastPlan.getTlboStopReason() + ") after "
+                + lastPlan.getTlboIterations() + " iterations and " + lastPlan.getTlboEvaluations() + " evaluations");
+    }
+
+    /**
+     * Plan many independent workflows against the VM list of this planner.
+     *
+     * All workflows share one RL agent (and its Q-table snapshot) and one set of VM tables.
+     * Stage 1 runs on the calling thread, one workflow after the other, so the agent keeps
+     * learning across the batch; each workflow's Stage 2 is handed to a worker pool as soon as
+     * its Stage 1 is done, so TLBO of earlier workflows overlaps Stage 1 of later ones.
+     * {@link #cancel()} stops every workflow of the batch; there is no single best-so-far plan,
+     * so {@link #getBestAllocation()} returns null while and after a batch runs.
+     *
+     * @return one plan per workflow, in the order of {@code workflows}
+     */
+    public List<WorkflowPlan> planBatch(List<? extends List<Task>> workflows) {
+        System.out.println("Running Hybrid RL-TLBO Scheduling Algorithm on " + workflows.size() + " workflows");
+
+        List<Vm> vmList = getVmList();
+        VmPool vmPool = new VmPool(vmList);
+        RandomStreams streams = RandomStreams.fromParameters();
+        StateEncoder stateEncoder = new BucketStateEncoder();
+        RLAgent rlAgent = new RLAgent(vmList, stateEncoder, loadQTable(vmList.size(), stateEncoder),
+                streams.stream(RandomStreams.Stage.RL_ASSIGNMENT, 0));
+
+        // One control for the whole batch: the deadline covers the batch, cancel() stops every workflow.
+        PlanningControl batchControl = new PlanningControl(HybridPlanningParameters.getPlanningDeadlineMillis());
+        control = batchControl;
+        metrics = HybridPlanningParameters.isMetricsEnabled() ? new PlanningMetrics() : PlanningMetrics.DISABLED;
+        ForkJoinPool pool = new ForkJoinPool(TLBO_PARALLELISM);
+        try {
+            List<ForkJoinTask<WorkflowPlan>> refinements = new ArrayList<>(workflows.size());
+            for (int w = 0; w < workflows.size(); w++) {
+                WorkflowJob job = assign(new ArrayList<>(workflows.get(w)), vmPool, rlAgent);
+                // Each workflow's TLBO gets its own stream, so results do not depend on pool scheduling.
+                long tlboSeed = streams.seed(RandomStreams.Stage.TLBO, w);
+                refinements.add(pool.submit(() -> refine(job, pool, batchControl, false, tlboSeed)));
+            }
+            saveQTable(rlAgent);
+
+            List<WorkflowPlan> plans = new ArrayList<>(workflows.size());
+            for (ForkJoinTask<WorkflowPlan> refinement : refinements) {
+                plans.add(refinement.join());
+            }
+            if (!plans.isEmpty()) {
+                lastPlan = plans.get(plans.size() - 1);
+            }
+            return plans;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Per-workflow planning state handed from Stage 1 to Stage 2.
+     */
+    private static final class WorkflowJob {
+        // Dense task index: every per-task structure below is keyed by it
+        final TaskIndex taskIndex;
+        // Execution time of every task on every VM, shared by Stage 1, TLBO and the final report
+        final ExecTimeMatrix execTimes;
+        // Precedence and data-transfer model
+        final WorkflowDag dag;
+        // Allocation: allocation[i] holds the VM id for the task at index i
+        final int[] allocation;
+        final TaskTimeline timeline;
+
+        WorkflowJob(TaskIndex taskIndex, ExecTimeMatrix execTimes, WorkflowDag dag, int[] allocation,
+                TaskTimeline timeline) {
+            this.taskIndex = taskIndex;
+            this.execTimes = execTimes;
+            this.dag = dag;
+            this.allocation = allocation;
+            this.timeline = timeline;
+        }
+    }
+
+    /**
+     * Stage 1: RL-based Scheduling with dynamic task list update. Assigns every task of the
+     * workflow with the given agent, which learns from each decision.
+     */
+    private WorkflowJob assign(List<Task> allTasks, VmPool vmPool, RLAgent rlAgent) {
+        long stageStart = System.nanoTime();
+        // Dense task index, built once: every per-task structure below is keyed by it.
+        TaskIndex taskIndexMap = new TaskIndex(allTasks);
         int[] allocation = new int[allTasks.size()];
+        TaskTimeline taskTimeline = new TaskTimeline(allTasks.size(), allTasks.size() >= OFF_HEAP_TIMELINE_TASKS);
+        ExecTimeMatrix execTimes = new ExecTimeMatrix(taskIndexMap, vmPool);
+        WorkflowDag dag = new WorkflowDag(taskIndexMap, vmPool);
+
+        // Indexed heap to track each VM’s current finish time (load)
+        VmLoadHeap vmLoads = new VmLoadHeap(vmPool.vmCount());
+
+        // Tasks become ready once all their parents are scheduled (Kahn-style in-degree counters).
+        TaskReadyQueue.ReleaseMode releaseMode = HybridPlanningParameters.getReleaseMode();
+        TaskReadyQueue readyQueue = new TaskReadyQueue(taskIndexMap, releaseMode);
+        int parallelWaveTasks = HybridPlanningParameters.getParallelWaveTasks();
+        if (releaseMode == TaskReadyQueue.ReleaseMode.WAVE && parallelWaveTasks > 0) {
+            assignWaves(readyQueue, allTasks, execTimes, vmLoads, allocation, taskTimeline, rlAgent, parallelWaveTasks);
+        }
+        while (readyQueue.hasNext()) {
+            // Index of the ready task in the overall task list.
+            int taskIndex = readyQueue.next();
+            Task task = allTasks.get(taskIndex);
+            int selectedVmIndex = rlAgent.selectVM(task, vmLoads);
+            double finishTime = place(task, taskIndex, selectedVmIndex, execTimes, vmLoads, allocation, taskTimeline);
+
+            // Update the Q-table based on the finish time reward.
+            rlAgent.updateQValue(task, selectedVmIndex, finishTime);
+            // Decay exploration rate after each decision.
+            rlAgent.decayEpsilon();
+        }
+        rlAgent.endEpisode();
+        if (readyQueue.scheduledCount() < allTasks.size()) {
+            throw new IllegalStateException("Workflow contains a dependency cycle: "
+                    + (allTasks.size() - readyQueue.scheduledCount()) + " tasks can never become ready");
+        }
+        metrics.qTableSize(rlAgent.qTableSize());
+        metrics.rlStageFinished(allTasks.size(), stageStart);
+        return new WorkflowJob(taskIndexMap, execTimes, dag, allocation, taskTimeline);
+    }
 
-        // Priority queue to track each VM’s current finish time (load)
-        PriorityQueue<VMInfo> vmQueue = new PriorityQueue<>(Comparator.comparingDouble(v -> v.currentLoad));
-        for (int i = 0; i < vmList.size(); i++) {
-            vmQueue.add(new VMInfo(i, 0.0));
-        }
-
-        // Create RL agent and TLBO optimizer
-        RLAgent rlAgent = new RLAgent(vmList);
-        TLBOOptimizer tlboOptimizer = new TLBOOptimizer(vmList, allTasks);
-
-        // ***********************
-        // Stage 1: RL-based Scheduling with dynamic task list update
-        // ***********************
-        List<Task> readyList = new ArrayList<>();
-        while (!remainingTasks.isEmpty()) {
-            readyList.clear();
-
-            // Identify ready tasks (tasks with no pending dependencies).
-            for (Task task : remainingTasks) {
-                boolean ready = true;
-                for (Task parent : task.getParentList()) {
-                    // If a task's parent is still unscheduled (present in remainingTasks), then it's not ready.
-                    if (remainingTasks.contains(parent)) {
-                        ready = false;
-                        break;
+    /**
+     * Stage 1 in parallel wave mode. A wave of at least {@code minParallelTasks} ready tasks has
+     * no dependencies inside it, so the agent scores all of them at once against the VM loads at
+     * the start of the wave, reading the Q-table only. A short sequential commit then places the
+     * tasks in task order. A greedy choice aimed at a VM that already received a task of this wave
+     * was made on a stale load, so it is redirected to the least loaded VM when that finishes the
+     * task earlier. The wave's Q-updates are applied afterwards, in one batch. Smaller waves are
+     * assigned task by task as in the sequential mode.
+     */
+    private void assignWaves(TaskReadyQueue readyQueue, List<Task> allTasks, ExecTimeMatrix execTimes,
+            VmLoadHeap vmLoads, int[] allocation, TaskTimeline taskTimeline, RLAgent rlAgent, int minParallelTasks) {
+        int taskCount = allTasks.size();
+        int[] wave = new int[taskCount];
+        long[] states = new long[taskCount];
+        // Greedy VM of each scored task, then the VM it was committed to
+        int[] vms = new int[taskCount];
+        double[] finishTimes = new double[taskCount];
+        // Last wave in which each VM received a task (its load then no longer matches the scoring)
+        int[] lastWave = new int[execTimes.vmCount()];
+        int waveNumber = 0;
+        while (readyQueue.hasNext()) {
+            int count = readyQueue.nextWave(wave);
+            if (count < minParallelTasks) {
+                for (int k = 0; k < count; k++) {
+                    Task task = allTasks.get(wave[k]);
+                    int vm = rlAgent.selectVM(task, vmLoads);
+                    double finishTime = place(task, wave[k], vm, execTimes, vmLoads, allocation, taskTimeline);
+                    rlAgent.updateQValue(task, vm, finishTime);
+                    rlAgent.decayEpsilon();
+                }
+                continue;
+            }
+
+            waveNumber++;
+            rlAgent.scoreWave(allTasks, wave, count, vmLoads, states, vms);
+            for (int k = 0; k < count; k++) {
+                int taskIndex = wave[k];
+                int greedyVm = Math.max(vms[k], 0);
+                int vm = rlAgent.chooseVM(states[k], vms[k]);
+                if (vm == greedyVm && lastWave[vm] == waveNumber) {
+                    int leastLoaded = vmLoads.peekMin();
+                    if (vmLoads.load(leastLoaded) + execTimes.time(taskIndex, leastLoaded)
+                            < vmLoads.load(vm) + execTimes.time(taskIndex, vm)) {
+                        vm = leastLoaded;
                     }
                 }
-                if (ready) {
-                    readyList.add(task);
+                lastWave[vm] = waveNumber;
+                vms[k] = vm;
+                finishTimes[k] = place(allTasks.get(taskIndex), taskIndex, vm, execTimes, vmLoads, allocation,
+                        taskTimeline);
+                rlAgent.decayEpsilon();
+            }
+            for (int k = 0; k < count; k++) {
+                rlAgent.updateQValue(states[k], vms[k], finishTimes[k]);
+            }
+        }
+    }
+
+    /**
+     * Place a task on a VM after the VM's current load: record the allocation and timeline and
+     * advance the load. Returns the task's finish time.
+     */
+    private static double place(Task task, int taskIndex, int vmIndex, ExecTimeMatrix execTimes, VmLoadHeap vmLoads,
+            int[] allocation, TaskTimeline taskTimeline) {
+        allocation[taskIndex] = vmIndex;
+        task.setVmId(vmIndex);
+
+        // Runtime on selected VM.
+        double runtime = execTimes.time(taskIndex, vmIndex);
+        double startTime = vmLoads.load(vmIndex);
+        double finishTime = startTime + runtime;
+
+        // Update VM load and record timeline.
+        vmLoads.setLoad(vmIndex, finishTime);
+        taskTimeline.set(taskIndex, startTime, finishTime);
+        return finishTime;
+    }
+
+    /**
+     * Stage 2: Global TLBO-based Optimization of a Stage 1 allocation, then the DAG-aware
+     * timeline of the result. Independent of other workflows, so jobs may be refined in parallel.
+     *
+     * @param pool          worker pool for population TLBO (only used when the TLBO population is above 1)
+     * @param control       cancellation and deadline of the run
+     * @param publishBest   whether to publish every improvement as the run's best-so-far plan
+     * @param seed          seed of this workflow's TLBO random streams
+     */
+    private WorkflowPlan refine(WorkflowJob job, ForkJoinPool pool, PlanningControl control, boolean publishBest,
+            long seed) {
+        long stageStart = System.nanoTime();
+        ExecTimeMatrix execTimes = job.execTimes;
+        WorkflowDag dag = job.dag;
+        int[] allocation = job.allocation;
+        // With DAG-aware fitness on, TLBO minimizes the DAG-aware makespan when tasks depend on each
+        // other; for independent tasks it equals the maximum VM load, which is cheaper.
+        WorkflowDag fitnessDag = HybridPlanningParameters.isDagAwareFitness() && dag.hasDependencies() ? dag : null;
+
+        // Run TLBO optimization until the stopping policy ends it.
+        TLBOStoppingPolicy stopping = TLBOStoppingPolicy.fromParameters(control);
+        int populationSize = HybridPlanningParameters.getTlboPopulation();
+        if (populationSize > 1) {
+            // Population mode: all learners go through both phases in parallel.
+            PopulationTLBOOptimizer population =
+                    new PopulationTLBOOptimizer(execTimes, fitnessDag, populationSize, seed,
+                            HybridPlanningParameters.getFitnessCacheEntries());
+            population.setStopCheck(stopping::interrupted);
+            population.setMetrics(metrics);
+            population.initialize(allocation);
+            stopping.start(population.bestMakespan());
+            if (publishBest) {
+                control.offer(population.best(), population.bestMakespan());
+            }
+            while (!stopping.shouldStop()) {
+                long iterationStart = System.nanoTime();
+                population.iterate(pool);
+                stopping.record(population.bestMakespan(), population.evaluations());
+                metrics.tlboIteration(stopping.iterations(), population.bestMakespan(), stopping.evaluations(),
+                        iterationStart);
+                if (publishBest && population.bestMakespan() < control.bestMakespan()) {
+                    control.offer(population.best(), population.bestMakespan());
                 }
             }
-        
-
-            // Process each ready task.
-            for (Task task : readyList) {
-                // Get the index of the task in the overall task list.
-                int taskIndex = allTasks.indexOf(task);
-                int selectedVmIndex = rlAgent.selectVM(task, vmQueue);
-                allocation[taskIndex] = selectedVmIndex;
-                task.setVmId(selectedVmIndex);
-
-                // Compute runtime on selected VM.
-                Vm vm = vmList.get(selectedVmIndex);
-                double runtime = task.getCloudletLength() / vm.getMips();
-                VMInfo vmInfo = rlAgent.getVMInfo(vmQueue, selectedVmIndex);
-                double startTime = vmInfo.currentLoad;
-                double finishTime = startTime + runtime;
-
-                // Update VM load and record timeline.
-                vmQueue.remove(vmInfo);
-                vmInfo.currentLoad = finishTime;
-                vmQueue.add(vmInfo);
-                taskTimeline.put(task.getCloudletId(), new double[]{startTime, finishTime});
-
-                // Update the Q-table based on the finish time reward.
-                rlAgent.updateQValue(task, selectedVmIndex, finishTime);
-                // Decay exploration rate after each decision.
-                rlAgent.decayEpsilon();
+            allocation = population.best();
+            metrics.fitnessCache(population.fitnessCacheLookups(), population.fitnessCacheHits());
+        } else {
+            TLBOOptimizer tlboOptimizer = new TLBOOptimizer(execTimes, fitnessDag, new SplittableRandom(seed),
+                    HybridPlanningParameters.getFitnessCacheEntries());
+            tlboOptimizer.setStopCheck(stopping::interrupted);
+            allocation = tlboOptimizer.begin(allocation);
+            stopping.start(tlboOptimizer.makespan());
+            if (publishBest) {
+                control.offer(allocation, tlboOptimizer.makespan());
+            }
+            while (!stopping.shouldStop()) {
+                long iterationStart = System.nanoTime();
+                // Teacher Phase: Move task assignments toward the global best (teacher).
+                allocation = tlboOptimizer.teacherPhase(allocation);
+                // Learner Phase: Refine allocation through pairwise comparisons.
+                allocation = tlboOptimizer.learnerPhase(allocation);
+                stopping.record(tlboOptimizer.makespan(), tlboOptimizer.evaluations());
+                metrics.tlboIteration(stopping.iterations(), tlboOptimizer.makespan(), stopping.evaluations(),
+                        iterationStart);
+                if (publishBest) {
+                    control.offer(allocation, tlboOptimizer.makespan());
+                }
             }
-            // Remove ready tasks from the remainingTasks list.
-            remainingTasks.removeAll(readyList);
+            metrics.fitnessCache(tlboOptimizer.fitnessCacheLookups(), tlboOptimizer.fitnessCacheHits());
         }
 
-        // ***********************
-        // Stage 2: Global TLBO-based Optimization
-        // ***********************
-        // Run TLBO optimization for a fixed number of iterations.
-        for (int iter = 0; iter < MAX_TLBO_ITER; iter++) {
-            // Teacher Phase: Move task assignments toward the global best (teacher).
-            allocation = tlboOptimizer.teacherPhase(allocation);
-            // Learner Phase: Refine allocation through pairwise comparisons.
-            allocation = tlboOptimizer.learnerPhase(allocation);
+        metrics.tlboEvaluations(stopping.evaluations());
+        metrics.tlboStageFinished(execTimes.taskCount(), stageStart);
+
+        // Replace the Stage 1 timeline with the DAG-aware schedule of the final allocation.
+        DagMakespanEvaluator schedule = new DagMakespanEvaluator(dag, execTimes);
+        schedule.bind(allocation);
+        TaskTimeline taskTimeline = job.timeline;
+        for (int i = 0; i < execTimes.taskCount(); i++) {
+            taskTimeline.set(i, schedule.startTime(i), schedule.finishTime(i));
         }
+        return new WorkflowPlan(job.taskIndex, allocation, taskTimeline, vmLoads(allocation, execTimes),
+                schedule.makespan(), stopping.stopReason(), stopping.iterations(), stopping.evaluations());
+    }
 
-        // Display the overall makespan after optimization.
-        displayMakespan(allocation, vmList, allTasks);
+    /**
+     * Q-table for a new run: backed by the configured snapshot when it exists and fits the
+     * encoder and VM count, empty otherwise. A bad snapshot never fails the run.
+     */
+    private QTable loadQTable(int vmCount, StateEncoder stateEncoder) {
+        Path path = HybridPlanningParameters.getQTablePath();
+        if (path == null || !Files.exists(path)) {
+            return new QTable(vmCount);
+        }
+        try {
+            return new QTable(vmCount, QTableSnapshot.open(path, stateEncoder.fingerprint(), vmCount));
+        } catch (IOException e) {
+            System.out.println("Ignoring Q-table snapshot: " + e.getMessage());
+            return new QTable(vmCount);
+        }
+    }
+
+    /**
+     * Snapshot the agent's Q-table to the configured file, if any.
+     */
+    private void saveQTable(RLAgent rlAgent) {
+        Path path = HybridPlanningParameters.getQTablePath();
+        if (path == null) {
+            return;
+        }
+        try {
+            rlAgent.saveQTable(path);
+        } catch (IOException e) {
+            System.out.println("Could not save Q-table snapshot " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Metrics of the run in progress or the last run (a disabled recorder unless
+     * {@link HybridPlanningParameters#setMetricsEnabled} is on).
+     */
+    public PlanningMetrics getMetrics() {
+        return metrics;
     }
 
     /**
-     * Display the overall makespan by simulating the VM loads using the final allocation.
+     * Ask the run in progress (or batch) to stop: TLBO winds down within a fraction of an
+     * iteration and the run returns the best plan found so far. Safe to call from any thread.
+     */
+    public void cancel() {
+        PlanningControl current = control;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * Best allocation found so far by the {@link #run()} in progress, or by the last one: VM index
+     * of each task by dense task index. Null until Stage 1 of the first run has finished, and
+     * while and after {@link #planBatch} runs (its plans are only returned when the batch ends).
+     * Safe to call from any thread while {@link #run()} is working.
+     */
+    public int[] getBestAllocation() {
+        PlanningControl current = control;
+        return current == null ? null : current.bestAllocation();
+    }
+
+    /**
+     * Makespan of {@link #getBestAllocation()} under the optimized fitness, NaN if there is none yet.
+     */
+    public double getBestMakespan() {
+        PlanningControl current = control;
+        return current == null ? Double.NaN : current.bestMakespan();
+    }
+
+    /**
+     * Result of the last {@link #run()} (or the last workflow of the last batch), null before the first run.
+     */
+    public WorkflowPlan getLastPlan() {
+        return lastPlan;
+    }
+
+    /**
+     * Final allocation of the last run: VM index of each task, by dense task index (null before the first run).
+     */
+    public int[] getAllocation() {
+        return lastPlan == null ? null : lastPlan.getAllocation();
+    }
+
+    /**
+     * Write the result of the last run to a memory-mappable {@link PlanResultFile}.
+     */
+    public void exportPlan(Path path) throws IOException {
+        requireLastPlan().export(path);
+    }
+
+    /**
+     * Planned start and finish times of the last run, keyed by dense task index (null before the first run).
+     */
+    public TaskTimeline getTaskTimeline() {
+        return lastPlan == null ? null : lastPlan.getTimeline();
+    }
+
+    /**
+     * Planned start time of the given task in the last run.
+     */
+    public double getStartTime(Task task) {
+        return requireLastPlan().getStartTime(task);
+    }
+
+    /**
+     * Planned finish time of the given task in the last run.
+     */
+    public double getFinishTime(Task task) {
+        return requireLastPlan().getFinishTime(task);
+    }
+
+    private WorkflowPlan requireLastPlan() {
+        if (lastPlan == null) {
+            throw new IllegalStateException("No plan: the planner has not run yet");
+        }
+        return lastPlan;
+    }
+
+    /**
+     * Simulate the VM loads of the final allocation.
      * Here we iterate over tasks using the consistent ordering of the allocation array.
      */
-    private void displayMakespan(int[] allocation, List<Vm> vmList, List<Task> taskList) {
-        double[] loads = new double[vmList.size()];
+    private static double[] vmLoads(int[] allocation, ExecTimeMatrix execTimes) {
+        double[] loads = new double[execTimes.vmCount()];
         // For each task (using its index in the task list), accumulate the runtime on its assigned VM.
-        for (int i = 0; i < taskList.size(); i++) {
-            Task task = taskList.get(i);
-            int vmIndex = allocation[i];
-            Vm vm = vmList.get(vmIndex);
-            loads[vmIndex] += task.getCloudletLength() / vm.getMips();
-            
-        }
+        new MakespanKernel(execTimes).loads(allocation, loads);
+        return loads;
+    }
+
+    /**
+     * Display the overall makespan from the per-VM loads of the final allocation.
+     */
+    private void displayMakespan(double[] loads) {
         double maxLoad = 0.0,makeSpan=0.0;
+        StringBuilder line = new StringBuilder(loads.length * 12);
         for (double load : loads) {
-        	System.out.print(load+" ");
+        	line.append(load).append(' ');
             makeSpan+=load;
             if(load>maxLoad) {
             	maxLoad=load;
             }
         }
+        System.out.print(line);
         System.out.println("Overall Makespan Time: " + makeSpan);
         System.out.println("MaxLoade on VM is: " + maxLoad);
     }
 
-    /**
-     * Helper class to track each VM's current workload (predicted finish time).
-     */
-    class VMInfo {
-        int vmId;
-        double currentLoad;
-
-        public VMInfo(int vmId, double currentLoad) {
-            this.vmId = vmId;
-            this.currentLoad = currentLoad;
-        }
-    }
-
     /**
      * Reinforcement Learning Agent that selects a VM for a given task.
-     * Uses a Q-table based on the state (combination of task length and sorted VM loads).
+     * Uses a Q-table based on the state (combination of task length and VM load distribution).
+     * States are turned into 64-bit ids by a pluggable {@link StateEncoder} (bucketed by default,
+     * see {@link BucketStateEncoder}) and Q-values are kept in a primitive {@link QTable}, so
+     * selection and updates do not allocate.
      */
     class RLAgent {
         private List<Vm> vmList;
-        private Map<String, Double> qTable;
-        private Random random;
+        private QTable qTable;
+        private StateEncoder stateEncoder;
+        private SplittableRandom random;
         private double learningRate = 0.1;
         private double discountFactor = 0.9;
         private double epsilon = 0.3;       // Initial exploration rate
+        private double warmStartEpsilon = 0.05; // Initial exploration rate with a warm-started Q-table
         private double epsilonDecay = 0.95; // Decay rate per update
+        // State observed by the last selection, the one its reward is credited to
+        private long lastState;
+        // Last rewarded decision, whose Q-value waits for the state observed at the next decision
+        private boolean hasPending;
+        private long pendingState;
+        private int pendingVm;
+        private double pendingReward;
 
         public RLAgent(List<Vm> vmList) {
+            this(vmList, new BucketStateEncoder());
+        }
+
+        public RLAgent(List<Vm> vmList, StateEncoder stateEncoder) {
+            this(vmList, stateEncoder, new QTable(vmList.size()),
+                    RandomStreams.fromParameters().stream(RandomStreams.Stage.RL_ASSIGNMENT, 0));
+        }
+
+        /**
+         * Agent working on the given Q-table and drawing exploration moves from the given stream.
+         * A table warm-started from an earlier run already knows the recurring states, so
+         * exploration starts at {@code warmStartEpsilon}.
+         */
+        public RLAgent(List<Vm> vmList, StateEncoder stateEncoder, QTable qTable, SplittableRandom random) {
             this.vmList = vmList;
-            this.qTable = new HashMap<>();
-            this.random = new Random();
+            this.qTable = qTable;
+            this.stateEncoder = stateEncoder;
+            this.random = random;
+            if (qTable.isWarmStarted()) {
+                epsilon = warmStartEpsilon;
+            }
         }
 
         /**
          * Select a VM based on the current state using an epsilon-greedy policy.
          */
-        public int selectVM(Task task, PriorityQueue<VMInfo> vmQueue) {
-            String state = getState(task, vmQueue);
+        public int selectVM(Task task, VmLoadHeap vmLoads) {
+            long state = stateEncoder.encode(task.getCloudletLength(), vmLoads);
+            lastState = state;
             int bestVmIndex = 0;
             if (random.nextDouble() < epsilon) {
                 // Exploration: choose a random VM.
                 bestVmIndex = random.nextInt(vmList.size());
             } else {
                 // Exploitation: select the VM with the highest Q-value.
-                double maxQ = Double.NEGATIVE_INFINITY;
-                for (int i = 0; i < vmList.size(); i++) {
-                    double q = qTable.getOrDefault(state + "_" + i, 0.0);
-                    if (q > maxQ) {
-                        maxQ = q;
-                        bestVmIndex = i;
-                    }
-                }
+                int row = qTable.find(state);
+                metrics.qTableLookup(row >= 0);
+                bestVmIndex = row < 0 ? 0 : qTable.argmaxAt(row);
             }
             return bestVmIndex;
         }
 
         /**
-         * Update the Q-value based on the finish time reward.
+         * Score a wave of mutually independent ready tasks against the same VM loads: for the
+         * task wave[k], states[k] receives the state it is observed in and greedyVms[k] the VM
+         * with the highest Q-value (-1 if the Q-table does not know the state). The load
+         * signature is computed once for the whole wave; each task only adds its length. Only
+         * reads the Q-table, so waves are split over the common ForkJoinPool.
+         */
+        void scoreWave(List<Task> tasks, int[] wave, int count, VmLoadHeap vmLoads, long[] states, int[] greedyVms) {
+            long loadSignature = stateEncoder.loadSignature(vmLoads);
+            ForkJoinPool.commonPool().invoke(new WaveScoring(tasks, wave, loadSignature, states, greedyVms, 0, count));
+        }
+
+        /**
+         * Epsilon-greedy choice for a task scored by {@link #scoreWave}. Called in commit order, so
+         * exploration draws from the agent's stream exactly as in the sequential mode.
+         */
+        int chooseVM(long state, int greedyVm) {
+            lastState = state;
+            if (random.nextDouble() < epsilon) {
+                // Exploration: choose a random VM.
+                return random.nextInt(vmList.size());
+            }
+            metrics.qTableLookup(greedyVm >= 0);
+            return greedyVm < 0 ? 0 : greedyVm;
+        }
+
+        /**
+         * Record the finish time reward of the last selection, credited to the state it was made
+         * in. The successor of a decision is the load state the next decision observes, so each
+         * call completes the Q-update of the previous decision; the last one is completed by
+         * {@link #endEpisode()}.
          */
         public void updateQValue(Task task, int vmIndex, double finishTime) {
-            String state = getState(task, new ArrayList<>(vmList), finishTime);
-            double reward = 1.0 / finishTime; // Inverse of finish time as reward
-            double currentQ = qTable.getOrDefault(state + "_" + vmIndex, 0.0);
-            double maxFutureQ = getMaxQ(state);
-            double newQ = currentQ + learningRate * (reward + discountFactor * maxFutureQ - currentQ);
-            qTable.put(state + "_" + vmIndex, newQ);
+            updateQValue(lastState, vmIndex, finishTime);
         }
 
         /**
-         * Get the maximum Q-value for the given state.
+         * Record the reward of a decision made in the given state, for batched updates after a
+         * parallel wave (in commit order).
          */
-        private double getMaxQ(String state) {
-            double maxQ = Double.NEGATIVE_INFINITY;
-            for (int i = 0; i < vmList.size(); i++) {
-                double q = qTable.getOrDefault(state + "_" + i, 0.0);
-                if (q > maxQ) {
-                    maxQ = q;
-                }
+        void updateQValue(long state, int vmIndex, double finishTime) {
+            if (hasPending) {
+                learn(state);
             }
-            return maxQ;
+            hasPending = true;
+            pendingState = state;
+            pendingVm = vmIndex;
+            pendingReward = 1.0 / finishTime; // Inverse of finish time as reward
         }
 
         /**
-         * Build a state string representation using task length and sorted VM loads.
+         * Complete the Q-update of the last rewarded decision as terminal: no decision follows it
+         * in this workflow.
          */
-        private String getState(Task task, PriorityQueue<VMInfo> vmQueue) {
-            StringBuilder sb = new StringBuilder();
-            sb.append(task.getCloudletLength()).append("_");
-            List<VMInfo> sortedList = new ArrayList<>(vmQueue);
-            sortedList.sort(Comparator.comparingDouble(v -> v.currentLoad));
-            for (VMInfo info : sortedList) {
-                sb.append(info.currentLoad).append("_");
+        public void endEpisode() {
+            if (hasPending) {
+                hasPending = false;
+                double currentQ = qTable.get(pendingState, pendingVm);
+                qTable.set(pendingState, pendingVm, currentQ + learningRate * (pendingReward - currentQ));
             }
-            return sb.toString();
         }
 
         /**
-         * Alternative state representation including the finish time.
+         * Q-learning update of the pending decision, with the given state as its successor.
          */
-        private String getState(Task task, List<Vm> vmList, double finishTime) {
-            return task.getCloudletLength() + "_" + finishTime;
+        private void learn(long nextState) {
+            double currentQ = qTable.get(pendingState, pendingVm);
+            double maxFutureQ = qTable.max(nextState);
+            double newQ = currentQ + learningRate * (pendingReward + discountFactor * maxFutureQ - currentQ);
+            qTable.set(pendingState, pendingVm, newQ);
         }
 
         /**
-         * Retrieve the VMInfo for the given VM id from the queue.
+         * Write the Q-table to a snapshot file tagged with this agent's state encoder.
          */
-        public VMInfo getVMInfo(PriorityQueue<VMInfo> vmQueue, int vmId) {
-            for (VMInfo info : vmQueue) {
-                if (info.vmId == vmId) {
-                    return info;
-                }
-            }
-            return null;
+        public void saveQTable(Path path) throws IOException {
+            qTable.save(path, stateEncoder.fingerprint());
         }
 
         /**
@@ -262,6 +661,55 @@ public class ALG_3PlanningAlgorithm extends BasePlanningAlgorithm {
          */
         public void decayEpsilon() {
             epsilon = Math.max(0.01, epsilon * epsilonDecay);
+            metrics.epsilon(epsilon);
+        }
+
+        /**
+         * Number of states in the Q-table.
+         */
+        public int qTableSize() {
+            return qTable.size();
+        }
+
+        /**
+         * Scores wave[from .. to), splitting the range in halves down to WAVE_SCORING_GRAIN tasks.
+         */
+        private final class WaveScoring extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final List<Task> tasks;
+            private final int[] wave;
+            private final long loadSignature;
+            private final long[] states;
+            private final int[] greedyVms;
+            private final int from;
+            private final int to;
+
+            WaveScoring(List<Task> tasks, int[] wave, long loadSignature, long[] states, int[] greedyVms, int from,
+                    int to) {
+                this.tasks = tasks;
+                this.wave = wave;
+                this.loadSignature = loadSignature;
+                this.states = states;
+                this.greedyVms = greedyVms;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > WAVE_SCORING_GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new WaveScoring(tasks, wave, loadSignature, states, greedyVms, from, mid),
+                            new WaveScoring(tasks, wave, loadSignature, states, greedyVms, mid, to));
+                    return;
+                }
+                for (int k = from; k < to; k++) {
+                    long state = stateEncoder.encode(tasks.get(wave[k]).getCloudletLength(), loadSignature);
+                    states[k] = state;
+                    greedyVms[k] = qTable.peekArgmax(state);
+                }
+            }
         }
     }
 
@@ -270,122 +718,214 @@ public class ALG_3PlanningAlgorithm extends BasePlanningAlgorithm {
      * It performs two phases:
      * 1. Teacher Phase: Moves task assignments toward the global best (teacher vector).
      * 2. Learner Phase: Uses pairwise comparisons between tasks for local improvements.
+     *
+     * Per-VM loads are kept in a {@link LoadMoveEvaluator} in sync with the allocation being refined,
+     * so each candidate move is evaluated and committed in O(log m) instead of resimulating
+     * the whole allocation. When a {@link WorkflowDag} is given, the teacher phase optimizes the
+     * DAG-aware makespan ({@link DagMakespanEvaluator}) instead of the maximum VM load.
      */
     class TLBOOptimizer {
-        private List<Vm> vmList;
-        private List<Task> taskList;
-        private Random random;
+        private ExecTimeMatrix execTimes;
+        private int taskCount;
+        private SplittableRandom random;
+        // Allocation currently being refined (owned by the optimizer) and its per-VM loads
+        private LoadMoveEvaluator moves;
+        // Makespan the optimizer minimizes (the load evaluator itself, or the DAG-aware one)
+        private MoveEvaluator fitness;
+        // Whole-allocation makespan for simulateMakespan
+        private MakespanKernel kernel;
+        // Cached teacher VM, -1 until first computed
+        private int cachedTeacherVm = -1;
+        // Fitness evaluations (candidate moves tried) so far
+        private long evaluations;
+        // Polled every PlanningControl.CHECK_INTERVAL tasks inside the phases; true ends the phase early
+        private BooleanSupplier stopCheck = () -> false;
+
+        public TLBOOptimizer(ExecTimeMatrix execTimes) {
+            this(execTimes, null, RandomStreams.fromParameters().stream(RandomStreams.Stage.TLBO, 0), 0);
+        }
 
-        public TLBOOptimizer(List<Vm> vmList, List<Task> taskList) {
-            this.vmList = vmList;
-            this.taskList = taskList;
-            this.random = new Random();
+        /**
+         * @param dag                 precedence model to optimize the DAG-aware makespan, or null for the maximum VM load
+         * @param random              stream for the learner phase's partner choice
+         * @param fitnessCacheEntries size of the cache of DAG-aware candidate makespans (0 = none)
+         */
+        public TLBOOptimizer(ExecTimeMatrix execTimes, WorkflowDag dag, SplittableRandom random,
+                int fitnessCacheEntries) {
+            this.execTimes = execTimes;
+            this.taskCount = execTimes.taskCount();
+            this.random = random;
+            this.kernel = new MakespanKernel(execTimes);
+            this.moves = new LoadMoveEvaluator(execTimes);
+            this.fitness = dag == null ? moves : CachingMoveEvaluator.withCache(new DagMakespanEvaluator(dag, execTimes),
+                    execTimes.vmCount(), fitnessCacheEntries);
+        }
+
+        /**
+         * Interrupt the phases when the given check returns true (polled every
+         * {@link PlanningControl#CHECK_INTERVAL} tasks). An interrupted phase leaves a valid
+         * allocation: every move it committed was accepted on its own.
+         */
+        public void setStopCheck(BooleanSupplier stopCheck) {
+            this.stopCheck = stopCheck;
+        }
+
+        /**
+         * Start refining the given allocation; returns the optimizer-owned copy the phases update.
+         */
+        public int[] begin(int[] allocation) {
+            return track(allocation);
+        }
+
+        /**
+         * Makespan of the allocation being refined, under the optimized fitness.
+         */
+        public double makespan() {
+            return fitness.makespan();
+        }
+
+        /**
+         * Fitness evaluations (candidate moves tried) so far.
+         */
+        public long evaluations() {
+            return evaluations;
+        }
+
+        /**
+         * Candidate makespans looked up in the fitness cache (0 without a cache).
+         */
+        public long fitnessCacheLookups() {
+            return CachingMoveEvaluator.lookups(fitness);
+        }
+
+        /**
+         * Candidate makespans answered from the fitness cache.
+         */
+        public long fitnessCacheHits() {
+            return CachingMoveEvaluator.hits(fitness);
         }
 
         /**
          * Teacher Phase: For each task, try to adjust the assignment toward the teacher (global best).
          * The teacher is defined as the VM that, if assigned to all tasks, minimizes the simulated makespan.
+         * A move is kept when the resulting makespan beats the makespan of the allocation entering the phase.
          */
         public int[] teacherPhase(int[] allocation) {
-            int[] newAllocation = allocation.clone();
-            // Identify the teacher VM by testing full assignment alternatives.
-            int teacherVm = findTeacherVM(newAllocation);
-            for (int i = 0; i < taskList.size(); i++) {
+            int[] newAllocation = track(allocation);
+            // Identify the teacher VM (the VM with the best all-tasks makespan).
+            int teacherVm = findTeacherVM();
+            double originalMakespan = fitness.makespan();
+            long evaluationsBefore = evaluations;
+            int accepted = 0;
+            for (int i = 0; i < taskCount; i++) {
+                if ((i & (PlanningControl.CHECK_INTERVAL - 1)) == 0 && stopCheck.getAsBoolean()) {
+                    break;
+                }
                 // For each task, if reassigning it to the teacher VM improves the makespan, update the allocation.
-                int originalVm = newAllocation[i];
-                newAllocation[i] = teacherVm;
-                double newMakespan = simulateMakespan(newAllocation);
-                double originalMakespan = simulateMakespan(allocation);
-                if (newMakespan >= originalMakespan) {
-                    // Revert if no improvement.
-                    newAllocation[i] = originalVm;
+                if (newAllocation[i] == teacherVm) {
+                    continue;
+                }
+                evaluations++;
+                double newMakespan = fitness.evaluateMove(i, teacherVm, originalMakespan);
+                if (newMakespan < originalMakespan) {
+                    commitMove(i, teacherVm);
+                    accepted++;
                 }
             }
+            metrics.teacherPhase(accepted, (int) (evaluations - evaluationsBefore) - accepted);
             return newAllocation;
         }
 
         /**
-         * Learner Phase: For each task, randomly pick a partner task and update the assignment
-         * if the partner's assignment yields a lower local load.
+         * Learner Phase: For each task, randomly pick a partner task and try the partner's VM.
+         * The trial is judged on the global objective: it is kept if it lowers the makespan
+         * (the DAG-aware one when enabled), or keeps it and spreads the VM loads more evenly
+         * (lower sum of squared loads). Both are evaluated incrementally from the affected VMs.
          */
         public int[] learnerPhase(int[] allocation) {
-            int[] newAllocation = allocation.clone();
-            for (int i = 0; i < taskList.size(); i++) {
+            int[] newAllocation = track(allocation);
+            double currentMakespan = fitness.makespan();
+            long evaluationsBefore = evaluations;
+            int accepted = 0;
+            for (int i = 0; i < taskCount; i++) {
+                if ((i & (PlanningControl.CHECK_INTERVAL - 1)) == 0 && stopCheck.getAsBoolean()) {
+                    break;
+                }
                 // Select a random partner task (different from i)
-                int j = random.nextInt(taskList.size());
+                int j = random.nextInt(taskCount);
                 while (j == i) {
-                    j = random.nextInt(taskList.size());
+                    j = random.nextInt(taskCount);
                 }
                 int vmI = newAllocation[i];
                 int vmJ = newAllocation[j];
-                // Evaluate local loads if task i were assigned to vmJ
-                newAllocation[i] = vmJ;
-                double newLoad = simulateLocalLoad(newAllocation, i);
-                newAllocation[i] = vmI;
-                double currentLoad = simulateLocalLoad(newAllocation, i);
-                // If the partner’s assignment improves the local load, update the allocation.
-                if (newLoad < currentLoad) {
-                    newAllocation[i] = vmJ;
+                if (vmI == vmJ) {
+                    continue;
+                }
+                // If the partner’s assignment improves the makespan, or balances the loads at equal makespan, adopt it.
+                evaluations++;
+                double newMakespan = fitness.evaluateMove(i, vmJ, currentMakespan);
+                if (newMakespan < currentMakespan
+                        || (newMakespan == currentMakespan && moves.balanceDelta(i, vmJ) < 0.0)) {
+                    commitMove(i, vmJ);
+                    currentMakespan = newMakespan;
+                    accepted++;
                 }
             }
+            metrics.learnerPhase(accepted, (int) (evaluations - evaluationsBefore) - accepted);
             return newAllocation;
         }
 
         /**
-         * Find the teacher VM, defined as the VM that minimizes the simulated makespan if
-         * all tasks were assigned to it.
+         * Start tracking the given allocation. The allocation returned by a previous phase is
+         * already in sync with the per-VM loads; any other array is copied and the loads rebuilt.
+         * The returned array is owned by the optimizer and updated in place by later phases.
          */
-        	private int findTeacherVM(int[] allocation) {
-	            int bestVm = 0;
-	            double bestMakespan = Double.MAX_VALUE;
-	            for (int vmIndex = 0; vmIndex < vmList.size(); vmIndex++) {
-	                int[] testAllocation = new int[allocation.length];
-	                Arrays.fill(testAllocation, vmIndex);
-	                double makespan = simulateMakespan(testAllocation);
-	                if (makespan < bestMakespan) {
-	                    bestMakespan = makespan;
-	                    bestVm = vmIndex;
-	                }
-	            }
-	            return bestVm;
-        	}
+        private int[] track(int[] allocation) {
+            if (allocation != moves.allocation()) {
+                int[] own = allocation.clone();
+                moves.bind(own);
+                if (fitness != moves) {
+                    fitness.bind(own);
+                }
+            }
+            return moves.allocation();
+        }
 
         /**
-         * Simulate the overall makespan (maximum finish time) for the given allocation.
+         * Commit a move to the tracked allocation, keeping loads and fitness in sync.
          */
-        private double simulateMakespan(int[] allocation) {
-            double[] loads = new double[vmList.size()];
-            for (int i = 0; i < taskList.size(); i++) {
-                Task task = taskList.get(i);
-                int vmIndex = allocation[i];
-                Vm vm = vmList.get(vmIndex);
-                loads[vmIndex] += task.getCloudletLength() / vm.getMips();
-            }
-            double maxLoad = 0.0;
-            for (double load : loads) {
-                if (load > maxLoad) {
-                    maxLoad = load;
-                }
+        private void commitMove(int taskIndex, int vmIndex) {
+            if (fitness != moves) {
+                fitness.commitMove(taskIndex, vmIndex);
             }
-            return maxLoad;
+            moves.commitMove(taskIndex, vmIndex);
         }
 
         /**
-         * Simulate the local load for a specific task given the current allocation.
-         * This function evaluates the impact of the task's assignment on the load of its assigned VM.
+         * Find the teacher VM, defined as the VM that minimizes the simulated makespan if
+         * all tasks were assigned to it. That makespan is (total task length) / MIPS, so the
+         * teacher is simply the fastest VM (lowest index on ties). The VM set of an optimizer
+         * never changes, so it is found with one O(m) scan and cached across iterations.
          */
-        private double simulateLocalLoad(int[] allocation, int taskIndex) {
-            int vmIndex = allocation[taskIndex];
-            double load = 0.0;
-            // Only consider tasks assigned to the same VM.
-            for (int i = 0; i < taskList.size(); i++) {
-                if (allocation[i] == vmIndex) {
-                    Task task = taskList.get(i);
-                    Vm vm = vmList.get(vmIndex);
-                    load += task.getCloudletLength() / vm.getMips();
+        private int findTeacherVM() {
+            if (cachedTeacherVm < 0) {
+                int bestVm = 0;
+                for (int vmIndex = 1; vmIndex < execTimes.vmCount(); vmIndex++) {
+                    if (execTimes.mips(vmIndex) > execTimes.mips(bestVm)) {
+                        bestVm = vmIndex;
+                    }
                 }
+                cachedTeacherVm = bestVm;
             }
-            return load;
+            return cachedTeacherVm;
+        }
+
+        /**
+         * Simulate the load-based makespan (maximum VM load) of the given allocation. This is
+         * not the DAG-aware makespan the phases minimize when a {@link WorkflowDag} is given.
+         */
+        double simulateMakespan(int[] allocation) {
+            return kernel.makespan(allocation);
         }
     }
 }
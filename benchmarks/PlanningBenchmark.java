@@ -0,0 +1,72 @@
+package org.workflowsim;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end planning: one full {@code ALG_3PlanningAlgorithm.run()} (Stage 1 + TLBO).
+ * The planner's progress output is discarded while measuring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningBenchmark {
+    @Param({"1000", "5000"})
+    public int tasks;
+
+    @Param({"16", "256"})
+    public int vms;
+
+    @Param({"16"})
+    public int depth;
+
+    @Param({"8"})
+    public int width;
+
+    private ALG_3PlanningAlgorithm planner;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        planner = new ALG_3PlanningAlgorithm();
+        planner.setTaskList(SyntheticWorkflows.dag(tasks, depth, width, 42L));
+        planner.setVmList(SyntheticWorkflows.vms(vms));
+        stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public ALG_3PlanningAlgorithm run() {
+        planner.run();
+        return planner;
+    }
+}
@@ -0,0 +1,79 @@
+package org.workflowsim;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stage 1 hot paths: one RL decision ({@code selectVM}) and one Q-value update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RLAgentBenchmark {
+    @Param({"1000", "20000"})
+    public int tasks;
+
+    @Param({"16", "256", "2000"})
+    public int vms;
+
+    @Param({"16"})
+    public int depth;
+
+    @Param({"8"})
+    public int width;
+
+    private ALG_3PlanningAlgorithm.RLAgent agent;
+    private VmLoadHeap vmLoads;
+    private List<Task> taskList;
+    private double[] finishTimes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        taskList = SyntheticWorkflows.dag(tasks, depth, width, 42L);
+        agent = new ALG_3PlanningAlgorithm().new RLAgent(SyntheticWorkflows.vms(vms));
+        // Loads of a VM pool halfway through a plan.
+        Random random = new Random(7L);
+        vmLoads = new VmLoadHeap(vms);
+        for (int vm = 0; vm < vms; vm++) {
+            vmLoads.setLoad(vm, random.nextDouble() * 1000.0);
+        }
+        finishTimes = new double[tasks];
+        for (int i = 0; i < tasks; i++) {
+            finishTimes[i] = 1.0 + random.nextDouble() * 2000.0;
+        }
+    }
+
+    @Benchmark
+    public int selectVM() {
+        Task task = taskList.get(nextTask());
+        return agent.selectVM(task, vmLoads);
+    }
+
+    @Benchmark
+    public void updateQValue() {
+        int i = nextTask();
+        agent.updateQValue(taskList.get(i), i % vms, finishTimes[i]);
+    }
+
+    private int nextTask() {
+        int i = next;
+        next = i + 1 == tasks ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,88 @@
+package org.workflowsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Synthetic workflows and VM pools for the planner benchmarks.
+ *
+ * A workflow has {@code depth} levels with the tasks spread evenly over them. Every task below
+ * the first level depends on one to three tasks of the previous level, picked from a window of
+ * {@code width} consecutive tasks around its own position: a small width gives long,
+ * mostly independent chains, a width close to the level size gives densely connected levels.
+ * Generation is seeded so every fork of a benchmark plans the same workflow.
+ */
+final class SyntheticWorkflows {
+    // MIPS of the VM types in the synthetic pool
+    private static final double[] VM_MIPS = {500, 750, 1000, 1500};
+
+    private SyntheticWorkflows() {
+    }
+
+    /**
+     * Layered random DAG with the given number of tasks, levels and dependency window width.
+     * The returned list is shuffled so that planning cannot rely on list order.
+     */
+    static List<Task> dag(int tasks, int depth, int width, long seed) {
+        Random random = new Random(seed);
+        int levels = Math.max(1, Math.min(depth, tasks));
+        List<List<Task>> byLevel = new ArrayList<>();
+        List<Task> all = new ArrayList<>(tasks);
+        int id = 0;
+        for (int level = 0; level < levels; level++) {
+            int size = tasks / levels + (level < tasks % levels ? 1 : 0);
+            List<Task> current = new ArrayList<>(size);
+            List<Task> previous = level == 0 ? null : byLevel.get(level - 1);
+            for (int k = 0; k < size; k++) {
+                Task task = new Task(id++, 1000 + random.nextInt(50000));
+                if (previous != null) {
+                    // Window of previous-level tasks centred on the same relative position.
+                    int center = (int) ((long) k * previous.size() / size);
+                    int from = Math.max(0, center - width / 2);
+                    int to = Math.min(previous.size(), from + Math.max(1, width));
+                    int parents = 1 + random.nextInt(3);
+                    for (int p = 0; p < parents; p++) {
+                        Task parent = previous.get(from + random.nextInt(to - from));
+                        if (!task.getParentList().contains(parent)) {
+                            task.addParent(parent);
+                            parent.addChild(task);
+                        }
+                    }
+                }
+                current.add(task);
+                all.add(task);
+            }
+            byLevel.add(current);
+        }
+        Collections.shuffle(all, random);
+        return all;
+    }
+
+    /**
+     * Heterogeneous VM pool cycling over a few MIPS classes.
+     */
+    static List<Vm> vms(int count) {
+        List<Vm> vms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vms.add(new Vm(i, 0, VM_MIPS[i % VM_MIPS.length], 1, 512, 1000, 10000, "Xen",
+                    new CloudletSchedulerSpaceShared()));
+        }
+        return vms;
+    }
+
+    /**
+     * Random allocation of the given number of tasks over the given number of VMs.
+     */
+    static int[] randomAllocation(int tasks, int vms, long seed) {
+        Random random = new Random(seed);
+        int[] allocation = new int[tasks];
+        for (int i = 0; i < tasks; i++) {
+            allocation[i] = random.nextInt(vms);
+        }
+        return allocation;
+    }
+}
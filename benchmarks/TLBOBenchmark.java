@@ -0,0 +1,78 @@
+package org.workflowsim;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cloudbus.cloudsim.Vm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stage 2 hot paths: one teacher phase, one learner phase and one full load-based makespan
+ * simulation.
+ * The allocation is reset to the same random allocation before every measurement iteration,
+ * so the phases keep finding moves instead of measuring an already converged vector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TLBOBenchmark {
+    @Param({"1000", "20000"})
+    public int tasks;
+
+    @Param({"16", "256"})
+    public int vms;
+
+    @Param({"16"})
+    public int depth;
+
+    @Param({"8"})
+    public int width;
+
+    private ALG_3PlanningAlgorithm.TLBOOptimizer optimizer;
+    private int[] initial;
+    private int[] allocation;
+
+    @Setup
+    public void setup() {
+        List<Task> taskList = SyntheticWorkflows.dag(tasks, depth, width, 42L);
+        List<Vm> vmList = SyntheticWorkflows.vms(vms);
+        ExecTimeMatrix execTimes = new ExecTimeMatrix(new TaskIndex(taskList), vmList);
+        optimizer = new ALG_3PlanningAlgorithm().new TLBOOptimizer(execTimes);
+        initial = SyntheticWorkflows.randomAllocation(tasks, vms, 7L);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetAllocation() {
+        allocation = initial.clone();
+    }
+
+    @Benchmark
+    public int[] teacherPhase() {
+        allocation = optimizer.teacherPhase(allocation);
+        return allocation;
+    }
+
+    @Benchmark
+    public int[] learnerPhase() {
+        allocation = optimizer.learnerPhase(allocation);
+        return allocation;
+    }
+
+    @Benchmark
+    public double simulateMakespan() {
+        return optimizer.simulateMakespan(initial);
+    }
+}
@@ -0,0 +1,63 @@
+package org.workflowsim;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@link PlanningEventSink} that emits JFR events (org.workflowsim.PlanningStage,
+ * org.workflowsim.TlboIteration). Events are only filled in and committed while a recording
+ * has them enabled. Needs JDK 11 or later; loaded by name from {@link PlanningEventSink#load()}.
+ */
+final class JfrPlanningEventSink implements PlanningEventSink {
+
+    @Override
+    public void stage(String stage, int tasks, long durationNanos) {
+        PlanningStageEvent event = new PlanningStageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.tasks = tasks;
+            event.durationNanos = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void tlboIteration(int iteration, double makespan, long evaluations, long durationNanos) {
+        TlboIterationEvent event = new TlboIterationEvent();
+        if (event.shouldCommit()) {
+            event.iteration = iteration;
+            event.makespan = makespan;
+            event.evaluations = evaluations;
+            event.durationNanos = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Name("org.workflowsim.PlanningStage")
+    @Label("Planning Stage")
+    @Category("WorkflowSim")
+    static final class PlanningStageEvent extends Event {
+        @Label("Stage")
+        String stage;
+        @Label("Tasks")
+        int tasks;
+        @Label("Duration (ns)")
+        long durationNanos;
+    }
+
+    @Name("org.workflowsim.TlboIteration")
+    @Label("TLBO Iteration")
+    @Category("WorkflowSim")
+    static final class TlboIterationEvent extends Event {
+        @Label("Iteration")
+        int iteration;
+        @Label("Best Makespan")
+        double makespan;
+        @Label("Evaluations")
+        long evaluations;
+        @Label("Duration (ns)")
+        long durationNanos;
+    }
+}